@@ -0,0 +1,79 @@
+package src.bench;
+
+import src.main.Main;
+import src.model.CostMatrix;
+import src.model.Individual;
+import src.model.Patrol;
+import src.model.PlanetarySystem;
+import src.service.EventType;
+import src.service.Population;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Measures the heap allocated per event in the steady state of the event loop.
+ * <p>
+ * Drives the same schedule/execute cycle as {@link Main#run()} and attributes the bytes
+ * allocated by the current thread to the type of each executed event. Births must
+ * allocate the new individual; mutations and deaths should allocate nothing.
+ */
+public class AllocationBenchmark {
+    private static final int PATROLS = 10;
+    private static final int SYSTEMS = 200;
+    private static final int INITIAL_POPULATION = 2_000;
+    private static final int MAX_POPULATION = 1_000_000;
+    private static final int WARMUP_EVENTS = 500_000;
+    private static final int MEASURED_EVENTS = 2_000_000;
+
+    public static void main(String[] args) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        SplittableRandom random = new SplittableRandom(7);
+        CostMatrix costs = BenchmarkSupport.randomCosts(random, PATROLS, SYSTEMS);
+        List<Patrol> patrols = new ArrayList<>();
+        for (int p = 0; p < PATROLS; p++) {
+            patrols.add(new Patrol(p));
+        }
+        List<PlanetarySystem> systems = new ArrayList<>();
+        for (int s = 0; s < SYSTEMS; s++) {
+            systems.add(new PlanetarySystem(s, costs));
+        }
+        Main main = new Main(patrols, systems, costs, Integer.MAX_VALUE, INITIAL_POPULATION, MAX_POPULATION, 2, 1, 1, new SplittableRandom(8));
+        Population population = main.getPopulation();
+
+        long[] bytes = new long[EventType.values().length];
+        long[] counts = new long[EventType.values().length];
+        double currentTime = 0;
+        for (int event = 0; event < WARMUP_EVENTS + MEASURED_EVENTS; event++) {
+            while (population.getIndividuals().size() < INITIAL_POPULATION / 2) {
+                Individual individual = BenchmarkSupport.randomIndividual(random, costs);
+                population.addIndividual(individual);
+                main.setNextEvent(currentTime, individual);
+            }
+            Individual next = population.getScheduler().peek();
+            currentTime = next.getTime();
+            EventType type = next.getEventType();
+            long before = threads.getCurrentThreadAllocatedBytes();
+            main.performEvent(next, currentTime);
+            long after = threads.getCurrentThreadAllocatedBytes();
+            if (event >= WARMUP_EVENTS) {
+                bytes[type.ordinal()] += after - before;
+                counts[type.ordinal()]++;
+            }
+        }
+
+        long totalBytes = 0;
+        long totalEvents = 0;
+        System.out.printf("%10s %12s %16s%n", "event", "count", "bytes/event");
+        for (EventType type : EventType.values()) {
+            totalBytes += bytes[type.ordinal()];
+            totalEvents += counts[type.ordinal()];
+            System.out.printf("%10s %12d %16.1f%n", type, counts[type.ordinal()],
+                              counts[type.ordinal()] == 0 ? 0.0 : bytes[type.ordinal()] / (double) counts[type.ordinal()]);
+        }
+        System.out.printf("%10s %12d %16.1f%n", "all", totalEvents, totalBytes / (double) totalEvents);
+        System.out.printf("final population: %d%n", population.getIndividuals().size());
+    }
+}
@@ -0,0 +1,93 @@
+package src.bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compares the wall-clock time of solving many instance files with one JVM launch per file and
+ * with a single batch process, on one worker and on all cores.
+ * <p>
+ * The instances are the SIM files, each listed several times in a manifest. Every configuration is
+ * run as child processes of the current JVM with its class path, so that all of them pay their own
+ * start-up, and with both the default solver and the evolutionary algorithm.
+ */
+public class BatchBenchmark {
+    private static final int REPEATS = 10;
+    private static final int WORKERS = Runtime.getRuntime().availableProcessors();
+    private static final String[][] SOLVERS = {{"--solver", "auto"}, {"--solver", "evolution"}};
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        File[] inputs = new File("SIM").listFiles((dir, name) -> name.startsWith("input") && name.endsWith(".txt"));
+        if (inputs == null) {
+            System.err.println("Run from the project root: SIM directory not found");
+            return;
+        }
+        Arrays.sort(inputs);
+        Path work = Files.createTempDirectory("batch-benchmark");
+        List<String> manifest = new ArrayList<>();
+        for (int r = 0; r < REPEATS; r++) {
+            for (File input : inputs) {
+                manifest.add(input.getAbsolutePath());
+            }
+        }
+        Path list = work.resolve("manifest.txt");
+        Files.write(list, manifest);
+
+        System.out.printf("%d instances%n", manifest.size());
+        System.out.printf("%12s %18s %18s %18s%n", "solver", "one JVM each (ms)", "batch, 1 worker", "batch, " + WORKERS + " workers");
+        for (String[] solver : SOLVERS) {
+            long start = System.nanoTime();
+            for (String instance : manifest) {
+                List<String> command = java("src.main.Main", "-f", instance, "--seed", "1");
+                command.addAll(Arrays.asList(solver));
+                launch(command, work.resolve("single.out"));
+            }
+            long separate = System.nanoTime() - start;
+            long[] batch = new long[2];
+            int[] workers = {1, WORKERS};
+            for (int i = 0; i < workers.length; i++) {
+                List<String> command = java("src.main.Batch", list.toString(), "--workers", Integer.toString(workers[i]),
+                                            "--batch-output", work.resolve("out" + i).toString(), "--seed", "1");
+                command.addAll(Arrays.asList(solver));
+                start = System.nanoTime();
+                launch(command, work.resolve("batch.out"));
+                batch[i] = System.nanoTime() - start;
+            }
+            System.out.printf("%12s %18.0f %18.0f %18.0f%n", solver[1], separate / 1e6, batch[0] / 1e6, batch[1] / 1e6);
+        }
+    }
+
+    /**
+     * Builds the command launching a main class of the project in a new JVM.
+     *
+     * @param mainClass The main class.
+     * @param args The arguments of the program.
+     * @return The command.
+     */
+    private static List<String> java(String mainClass, String... args) {
+        List<String> command = new ArrayList<>(List.of(Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                                                       "-cp", System.getProperty("java.class.path"), mainClass));
+        command.addAll(Arrays.asList(args));
+        return command;
+    }
+
+    /**
+     * Runs a command and waits for it.
+     *
+     * @param command The command.
+     * @param output The file receiving its standard output and error.
+     * @throws IOException If the process cannot be started or fails.
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    private static void launch(List<String> command, Path output) throws IOException, InterruptedException {
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(output.toFile()).start();
+        if (process.waitFor() != 0) {
+            throw new IOException("Command failed: " + String.join(" ", command));
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package src.bench;
+
+import src.model.CostMatrix;
+import src.model.Individual;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Helpers shared by the benchmarks to build synthetic instances.
+ */
+final class BenchmarkSupport {
+
+    private BenchmarkSupport() {
+    }
+
+    /**
+     * Creates a cost matrix with times between 1 and 10.
+     *
+     * @param random The random generator.
+     * @param n The number of patrols.
+     * @param m The number of planetary systems.
+     * @return The cost matrix.
+     */
+    static CostMatrix randomCosts(RandomGenerator random, int n, int m) {
+        CostMatrix.Builder builder = new CostMatrix.Builder(n, m, CostMatrix.Layout.BY_SYSTEM);
+        for (int p = 0; p < n; p++) {
+            for (int s = 0; s < m; s++) {
+                builder.set(p, s, random.nextInt(10) + 1);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Creates an individual with a uniformly random allocation.
+     *
+     * @param random The random generator.
+     * @param costs The cost matrix.
+     * @return The individual.
+     */
+    static Individual randomIndividual(RandomGenerator random, CostMatrix costs) {
+        int[] genome = new int[costs.getM()];
+        for (int s = 0; s < genome.length; s++) {
+            genome[s] = random.nextInt(costs.getN());
+        }
+        return new Individual(genome, costs, 1.0);
+    }
+}
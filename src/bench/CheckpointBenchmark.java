@@ -0,0 +1,117 @@
+package src.bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Checks that a run resumed from a checkpoint continues exactly as the uninterrupted run, and
+ * measures the wall-clock cost of writing checkpoints.
+ * <p>
+ * Every instance is run three times as child processes of the current JVM with its class path,
+ * with CSV output and a fixed seed: without checkpoints, with a checkpoint every 1024 events, and
+ * resumed from the last of those checkpoints. The checkpointed run must print the same observations
+ * as the plain one, and the resumed run the same observations as the end of the plain one. This is
+ * done with the default options and with every option that adds state to a run. The program exits
+ * with status 1 on a difference, which fails {@code make bench}.
+ */
+public class CheckpointBenchmark {
+    private static final String[] SYNTHETIC = {"-r", "10", "200", "300", "50", "200", "10", "10", "1"};
+    private static final String[][] OPTIONS = {
+        {},
+        {"--sampler", "classic"},
+        {"--local-search", "50", "--local-search-rate", "0.3", "--fitness-cache", "1000", "--warm-start", "0.5"},
+    };
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        File[] inputs = new File("SIM").listFiles((dir, name) -> name.startsWith("input") && name.endsWith(".txt"));
+        if (inputs == null) {
+            System.err.println("Run from the project root: SIM directory not found");
+            return;
+        }
+        Arrays.sort(inputs);
+        List<String[]> instances = new ArrayList<>();
+        for (File input : inputs) {
+            instances.add(new String[]{"-f", input.getPath()});
+        }
+        instances.add(SYNTHETIC);
+        Path work = Files.createTempDirectory("checkpoint-benchmark");
+        Path checkpoint = work.resolve("run.ckpt");
+        boolean passed = true;
+
+        System.out.printf("%16s %10s %12s %16s %10s%n", "instance", "options", "plain (ms)", "checkpoints (ms)", "resumed");
+        for (String[] instance : instances) {
+            String name = instance[0].equals("-f") ? new File(instance[1]).getName()
+                                                   : String.join(" x ", Arrays.copyOfRange(instance, 1, 3));
+            for (int o = 0; o < OPTIONS.length; o++) {
+                List<String> command = java("src.main.Main");
+                command.addAll(Arrays.asList(instance));
+                command.addAll(List.of("--seed", "1", "--solver", "evolution", "--lower-bound", "off", "--output", "csv"));
+                command.addAll(Arrays.asList(OPTIONS[o]));
+
+                long start = System.nanoTime();
+                List<String> plain = launch(command, work.resolve("plain.csv"));
+                long plainTime = System.nanoTime() - start;
+
+                Files.deleteIfExists(checkpoint);
+                List<String> saving = new ArrayList<>(command);
+                saving.addAll(List.of("--checkpoint", checkpoint.toString(), "--checkpoint-interval", "0"));
+                start = System.nanoTime();
+                List<String> checkpointed = launch(saving, work.resolve("checkpointed.csv"));
+                long checkpointTime = System.nanoTime() - start;
+
+                String resumed;
+                if (plain == null || !plain.equals(checkpointed)) {
+                    resumed = "CHECKPOINTED RUN DIFFERS";
+                } else if (!Files.exists(checkpoint)) {
+                    resumed = "no checkpoint"; // fewer than 1024 events
+                } else {
+                    List<String> resuming = new ArrayList<>(command);
+                    resuming.addAll(List.of("--resume", checkpoint.toString()));
+                    List<String> tail = launch(resuming, work.resolve("resumed.csv"));
+                    int count = tail == null ? -1 : tail.size() - 1; // without the header
+                    boolean same = count >= 0 && count < plain.size()
+                                   && tail.subList(1, tail.size()).equals(plain.subList(plain.size() - count, plain.size()));
+                    resumed = same ? count + " obs." : "DIFFERS";
+                }
+                passed &= !resumed.equals("DIFFERS") && !resumed.startsWith("CHECKPOINTED");
+                System.out.printf("%16s %10s %12.0f %16.0f %10s%n", name, o == 0 ? "default" : "set " + o,
+                                  plainTime / 1e6, checkpointTime / 1e6, resumed);
+            }
+        }
+        System.out.println(passed ? "Resumed runs match the uninterrupted runs" : "Some resumed runs differ");
+        if (!passed) {
+            System.exit(1); // fails make bench
+        }
+    }
+
+    /**
+     * Builds the command launching a main class of the project in a new JVM.
+     *
+     * @param mainClass The main class.
+     * @return The command, to which the arguments of the program are added.
+     */
+    private static List<String> java(String mainClass) {
+        return new ArrayList<>(List.of(Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                                       "-cp", System.getProperty("java.class.path"), mainClass));
+    }
+
+    /**
+     * Runs a command, waits for it and reads its standard output.
+     *
+     * @param command The command.
+     * @param output The file receiving its standard output.
+     * @return The lines of the output, or null if the command failed.
+     * @throws IOException If the process cannot be started or its output cannot be read.
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    private static List<String> launch(List<String> command, Path output) throws IOException, InterruptedException {
+        Process process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.DISCARD)
+                                                     .redirectOutput(output.toFile()).start();
+        return process.waitFor() == 0 ? Files.readAllLines(output) : null;
+    }
+}
@@ -0,0 +1,88 @@
+package src.bench;
+
+import src.model.CostMatrix;
+import src.model.Individual;
+import src.service.Population;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Measures the cost of removing an individual from the population, as a death event does,
+ * for growing population sizes.
+ * <p>
+ * Each round removes a random individual and adds a fresh one, so the population size
+ * stays constant. The list-based removal the population used before is timed alongside
+ * for comparison.
+ */
+public class DeathEventBenchmark {
+    private static final int[] POPULATION_SIZES = {1_000, 10_000, 100_000};
+    private static final int ROUNDS = 20_000;
+
+    public static void main(String[] args) {
+        CostMatrix costs = BenchmarkSupport.randomCosts(new SplittableRandom(1), 5, 20);
+        System.out.printf("%12s %22s %22s%n", "population", "slot remove (ns/op)", "list remove (ns/op)");
+        for (int warmup = 0; warmup < 2; warmup++) {
+            for (int size : POPULATION_SIZES) {
+                double slot = timeSlotRemoval(costs, size);
+                double list = timeListRemoval(costs, size);
+                if (warmup == 1) {
+                    System.out.printf("%12d %22.1f %22.1f%n", size, slot, list);
+                }
+            }
+        }
+    }
+
+    /**
+     * Times Population.removeIndividual followed by the addition of a replacement.
+     *
+     * @param costs The cost matrix of the individuals.
+     * @param size The population size.
+     * @return The average time per removal in nanoseconds.
+     */
+    private static double timeSlotRemoval(CostMatrix costs, int size) {
+        SplittableRandom random = new SplittableRandom(42);
+        Population population = new Population(Integer.MAX_VALUE);
+        for (int i = 0; i < size; i++) {
+            population.addIndividual(BenchmarkSupport.randomIndividual(random, costs));
+        }
+        Individual[] replacements = new Individual[ROUNDS];
+        for (int i = 0; i < ROUNDS; i++) {
+            replacements[i] = BenchmarkSupport.randomIndividual(random, costs);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            Individual victim = population.getIndividuals().get(random.nextInt(size));
+            population.removeIndividual(victim);
+            population.addIndividual(replacements[i]);
+        }
+        return (System.nanoTime() - start) / (double) ROUNDS;
+    }
+
+    /**
+     * Times ArrayList.remove(Object), the removal used before slot indices.
+     *
+     * @param costs The cost matrix of the individuals.
+     * @param size The population size.
+     * @return The average time per removal in nanoseconds.
+     */
+    private static double timeListRemoval(CostMatrix costs, int size) {
+        SplittableRandom random = new SplittableRandom(42);
+        List<Individual> individuals = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            individuals.add(BenchmarkSupport.randomIndividual(random, costs));
+        }
+        Individual[] replacements = new Individual[ROUNDS];
+        for (int i = 0; i < ROUNDS; i++) {
+            replacements[i] = BenchmarkSupport.randomIndividual(random, costs);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            Individual victim = individuals.get(random.nextInt(size));
+            individuals.remove(victim);
+            individuals.add(replacements[i]);
+        }
+        return (System.nanoTime() - start) / (double) ROUNDS;
+    }
+}
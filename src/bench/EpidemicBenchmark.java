@@ -0,0 +1,131 @@
+package src.bench;
+
+import src.model.CostMatrix;
+import src.model.Individual;
+import src.service.EventScheduler;
+import src.service.Population;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Measures the cost of an epidemic for growing population sizes.
+ * <p>
+ * Every round fills a population with individuals of random comfort and event time, then
+ * times a single epidemic. The culling the population used before, a full sort followed by
+ * one scheduler removal per casualty, is timed alongside for comparison.
+ */
+public class EpidemicBenchmark {
+    private static final int[] POPULATION_SIZES = {1_000, 10_000, 100_000, 300_000};
+    private static final int WORK = 3_000_000;
+
+    public static void main(String[] args) {
+        CostMatrix costs = BenchmarkSupport.randomCosts(new SplittableRandom(1), 5, 20);
+        System.out.printf("%12s %22s %22s%n", "population", "linear (us/epidemic)", "sorted (us/epidemic)");
+        for (int warmup = 0; warmup < 2; warmup++) {
+            for (int size : POPULATION_SIZES) {
+                Individual[] pool = createPool(costs, size);
+                int rounds = Math.max(5, WORK / size);
+                double linear = timeLinearEpidemic(pool, rounds);
+                double sorted = timeSortedEpidemic(pool, rounds);
+                if (warmup == 1) {
+                    System.out.printf("%12d %22.1f %22.1f%n", size, linear, sorted);
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates individuals with random allocations.
+     *
+     * @param costs The cost matrix of the individuals.
+     * @param size The number of individuals.
+     * @return The individuals.
+     */
+    private static Individual[] createPool(CostMatrix costs, int size) {
+        SplittableRandom random = new SplittableRandom(42);
+        Individual[] pool = new Individual[size];
+        for (int i = 0; i < size; i++) {
+            pool[i] = BenchmarkSupport.randomIndividual(random, costs);
+        }
+        return pool;
+    }
+
+    /**
+     * Gives every individual of the pool a fresh comfort and event time and detaches it from
+     * any previous population.
+     *
+     * @param pool The individuals.
+     * @param random The random generator.
+     */
+    private static void reset(Individual[] pool, SplittableRandom random) {
+        for (Individual individual : pool) {
+            individual.setComfort(random.nextDouble());
+            individual.setTime(random.nextDouble());
+            individual.setSchedulerIndex(-1);
+            individual.setPopulationIndex(-1);
+        }
+    }
+
+    /**
+     * Times Population.handleEpidemic.
+     *
+     * @param pool The individuals.
+     * @param rounds The number of epidemics.
+     * @return The average time per epidemic in microseconds.
+     */
+    private static double timeLinearEpidemic(Individual[] pool, int rounds) {
+        SplittableRandom random = new SplittableRandom(7);
+        long total = 0;
+        for (int round = 0; round < rounds; round++) {
+            reset(pool, random);
+            Population population = new Population(Integer.MAX_VALUE);
+            for (Individual individual : pool) {
+                population.addIndividual(individual);
+                population.getScheduler().schedule(individual);
+            }
+            long start = System.nanoTime();
+            population.handleEpidemic(random);
+            total += System.nanoTime() - start;
+        }
+        return total / 1e3 / rounds;
+    }
+
+    /**
+     * Times the epidemic used before: sort by comfort, keep the first five and remove each
+     * casualty from the scheduler one at a time.
+     *
+     * @param pool The individuals.
+     * @param rounds The number of epidemics.
+     * @return The average time per epidemic in microseconds.
+     */
+    private static double timeSortedEpidemic(Individual[] pool, int rounds) {
+        SplittableRandom random = new SplittableRandom(7);
+        long total = 0;
+        for (int round = 0; round < rounds; round++) {
+            reset(pool, random);
+            List<Individual> individuals = new ArrayList<>(pool.length);
+            EventScheduler scheduler = new EventScheduler();
+            for (Individual individual : pool) {
+                individuals.add(individual);
+                scheduler.schedule(individual);
+            }
+            long start = System.nanoTime();
+            individuals.sort(Comparator.comparingDouble(Individual::getComfort).reversed());
+            int survivors = Math.min(5, individuals.size());
+            for (int i = 5; i < individuals.size(); i++) {
+                Individual individual = individuals.get(i);
+                if (random.nextDouble() < ((2.0 / 3) * individual.getComfort())) {
+                    individuals.set(survivors++, individual);
+                } else {
+                    scheduler.remove(individual);
+                }
+            }
+            individuals.subList(survivors, individuals.size()).clear();
+            total += System.nanoTime() - start;
+        }
+        return total / 1e3 / rounds;
+    }
+}
@@ -0,0 +1,198 @@
+package src.bench;
+
+import src.main.Main;
+import src.model.CostMatrix;
+import src.service.ExactSolver;
+import src.util.Parser;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Compares the wall-clock time of the exact solver, on one thread and on all cores, with the time
+ * the evolutionary algorithm takes to reach the same optimal policing time, on the SIM instances
+ * and on small synthetic ones.
+ * <p>
+ * The exact times are the best of several rounds and include computing the lower bound and the
+ * starting allocation. The evolutionary algorithm is run with several seeds until it reaches the
+ * optimum or the end of the simulation; the table reports how many seeds reached it and their median time.
+ * Synthetic instances are drawn from the seed, so their optimum is solved again for each seed.
+ * <p>
+ * Beforehand, the optimum found on one thread and on several is checked against brute force on
+ * small random instances with few distinct costs, half of them with identical patrols, and the
+ * lower bound against the optimum. The program exits with status 1 on a mismatch, which fails {@code make bench}.
+ */
+public class ExactSolverBenchmark {
+    private static final int THREADS = Runtime.getRuntime().availableProcessors();
+    private static final int ROUNDS = 5;
+    private static final int SEEDS = 10;
+    private static final int CHECKS = 3000;
+    private static final String[][] SYNTHETIC = {
+        {"-r", "5", "20", "500", "500", "3000", "10", "10", "1"},
+        {"-r", "8", "13", "500", "500", "3000", "10", "10", "1"},
+    };
+
+    public static void main(String[] args) {
+        boolean passed = checkOptimality();
+        File[] inputs = new File("SIM").listFiles((dir, name) -> name.startsWith("input") && name.endsWith(".txt"));
+        if (inputs == null) {
+            System.err.println("Run from the project root: SIM directory not found");
+            return;
+        }
+        Arrays.sort(inputs);
+        List<String[]> instances = new ArrayList<>();
+        for (File input : inputs) {
+            instances.add(new String[]{"-f", input.getPath()});
+        }
+        instances.addAll(Arrays.asList(SYNTHETIC));
+
+        System.out.printf("%16s %8s %10s %12s %12s %18s%n", "instance", "optimum", "nodes", "exact 1 (ms)",
+                          "exact " + THREADS + " (ms)", "evolution (hits, ms)");
+        for (String[] instance : instances) {
+            CostMatrix costs = parse(instance, 1).getC();
+            long sequential = Long.MAX_VALUE;
+            long parallel = Long.MAX_VALUE;
+            ExactSolver solver = null;
+            int[] genome = null;
+            for (int round = 0; round < ROUNDS; round++) {
+                long start = System.nanoTime();
+                solver = new ExactSolver(costs, 0);
+                genome = solver.solve(1);
+                sequential = Math.min(sequential, System.nanoTime() - start);
+                start = System.nanoTime();
+                new ExactSolver(costs, 0).solve(THREADS);
+                parallel = Math.min(parallel, System.nanoTime() - start);
+            }
+            int optimum = policingTime(costs, genome);
+            String name = instance[0].equals("-f") ? new File(instance[1]).getName()
+                                                   : String.join(" x ", Arrays.copyOfRange(instance, 1, 3));
+            System.out.printf("%16s %8d %10d %12.2f %12.2f %18s%n", name, optimum, solver.getNodes(),
+                              sequential / 1e6, parallel / 1e6, measure(instance));
+        }
+        if (!passed) {
+            System.exit(1); // fails make bench
+        }
+    }
+
+    /**
+     * Compares the exact solver with brute force on small random instances.
+     *
+     * @return True if every optimum matches and no lower bound exceeds it.
+     */
+    private static boolean checkOptimality() {
+        SplittableRandom random = new SplittableRandom(5);
+        int mismatches = 0;
+        for (int i = 0; i < CHECKS; i++) {
+            int n = 1 + random.nextInt(4);
+            int m = 1 + random.nextInt(8);
+            int distinct = 1 + random.nextInt(6);
+            boolean twins = random.nextBoolean();
+            CostMatrix.Builder builder = new CostMatrix.Builder(n, m, CostMatrix.Layout.BY_SYSTEM);
+            int[][] rows = new int[n][m];
+            for (int p = 0; p < n; p++) {
+                int twin = twins && p > 0 && random.nextBoolean() ? random.nextInt(p) : -1;
+                for (int s = 0; s < m; s++) {
+                    rows[p][s] = twin >= 0 ? rows[twin][s] : 1 + random.nextInt(distinct);
+                    builder.set(p, s, rows[p][s]);
+                }
+            }
+            CostMatrix costs = builder.build();
+            int optimum = bruteForce(costs);
+            for (int threads : new int[]{1, 3}) {
+                ExactSolver solver = new ExactSolver(costs, 0);
+                int found = policingTime(costs, solver.solve(threads));
+                if (found != optimum || solver.getLowerBound() > optimum) {
+                    mismatches++;
+                    System.out.printf("Mismatch on %s with %d threads: optimum %d, found %d, lower bound %d%n",
+                                      Arrays.deepToString(rows), threads, optimum, found, solver.getLowerBound());
+                }
+            }
+        }
+        System.out.println(mismatches == 0 ? "Exact solver matches brute force on " + CHECKS + " instances"
+                                           : mismatches + " mismatches with brute force");
+        return mismatches == 0;
+    }
+
+    /**
+     * Finds the smallest policing time by trying every allocation.
+     *
+     * @param costs The cost matrix.
+     * @return The optimal policing time.
+     */
+    private static int bruteForce(CostMatrix costs) {
+        int n = costs.getN();
+        int[] genome = new int[costs.getM()];
+        int best = Integer.MAX_VALUE;
+        while (true) {
+            best = Math.min(best, policingTime(costs, genome));
+            int s = 0;
+            while (s < genome.length && ++genome[s] == n) {
+                genome[s++] = 0;
+            }
+            if (s == genome.length) {
+                return best;
+            }
+        }
+    }
+
+    /**
+     * Runs the evolutionary algorithm with every seed and summarizes the time to reach the optimum.
+     *
+     * @param instance The instance arguments of the parser.
+     * @return The number of seeds that reached the optimum and their median wall time.
+     */
+    private static String measure(String[] instance) {
+        long[] times = new long[SEEDS];
+        int hits = 0;
+        for (int seed = 0; seed < SEEDS; seed++) {
+            Parser parser = parse(instance, seed);
+            int optimum = policingTime(parser.getC(), new ExactSolver(parser.getC(), 0).solve(THREADS));
+            Main main = Main.createSimulations(parser, 1).get(0);
+            main.setTargetComfort(main.getTmin() / optimum);
+            long start = System.nanoTime();
+            main.run();
+            long elapsed = System.nanoTime() - start;
+            if (main.getPopulation().getElite().getBest().getPolicingTime() <= optimum) {
+                times[hits++] = elapsed;
+            }
+        }
+        if (hits == 0) {
+            return "0/" + SEEDS + "        -";
+        }
+        Arrays.sort(times, 0, hits);
+        return String.format("%d/%d %9.2f", hits, SEEDS, times[hits / 2] / 1e6);
+    }
+
+    /**
+     * Computes the policing time of an allocation.
+     *
+     * @param costs The cost matrix.
+     * @param genome The patrol of each system.
+     * @return The largest patrol load.
+     */
+    private static int policingTime(CostMatrix costs, int[] genome) {
+        int[] loads = new int[costs.getN()];
+        int max = 0;
+        for (int s = 0; s < genome.length; s++) {
+            loads[genome[s]] += costs.get(genome[s], s);
+            max = Math.max(max, loads[genome[s]]);
+        }
+        return max;
+    }
+
+    /**
+     * Parses an instance for the evolutionary algorithm with the given seed.
+     *
+     * @param instance The instance arguments of the parser.
+     * @param seed The seed of the run.
+     * @return The parser.
+     */
+    private static Parser parse(String[] instance, long seed) {
+        List<String> args = new ArrayList<>(Arrays.asList(instance));
+        args.addAll(Arrays.asList("--solver", "evolution", "--seed", Long.toString(seed)));
+        return new Parser(args.toArray(new String[0]));
+    }
+}
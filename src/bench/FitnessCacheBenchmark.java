@@ -0,0 +1,103 @@
+package src.bench;
+
+import src.main.Main;
+import src.metrics.SimulationMetrics;
+import src.util.Parser;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Measures the hit rate of the fitness cache and its effect on the event throughput, on the SIM
+ * instances and on larger synthetic instances.
+ * <p>
+ * Each instance is run with several seeds without the cache and with it; the table reports the
+ * median events per second of each configuration and the hit rate of the cached runs. The seeded
+ * runs are identical with and without the cache, so both execute the same events.
+ */
+public class FitnessCacheBenchmark {
+    private static final int SEEDS = 9;
+    private static final int CAPACITY = 1 << 12;
+    private static final String[][] SYNTHETIC = {
+        {"-r", "8", "40", "2000", "500", "3000", "10", "10", "1"},
+        {"-r", "30", "1000", "500", "500", "3000", "10", "10", "1"},
+    };
+
+    public static void main(String[] args) {
+        File[] inputs = new File("SIM").listFiles((dir, name) -> name.startsWith("input") && name.endsWith(".txt"));
+        if (inputs == null) {
+            System.err.println("Run from the project root: SIM directory not found");
+            return;
+        }
+        Arrays.sort(inputs);
+        List<String[]> instances = new ArrayList<>();
+        for (File input : inputs) {
+            instances.add(new String[]{"-f", input.getPath()});
+        }
+        instances.addAll(Arrays.asList(SYNTHETIC));
+
+        System.out.printf("%24s %16s %16s %10s%n", "instance", "no cache (ev/s)", "cache (ev/s)", "hit rate");
+        for (String[] instance : instances) {
+            for (int seed = 0; seed < SEEDS; seed++) {
+                run(instance, seed, 0); // warm-up
+            }
+            double[] plain = new double[SEEDS];
+            double[] cached = new double[SEEDS];
+            long hits = 0;
+            long lookups = 0;
+            for (int seed = 0; seed < SEEDS; seed++) {
+                plain[seed] = eventRate(run(instance, seed, 0));
+                SimulationMetrics metrics = run(instance, seed, CAPACITY);
+                cached[seed] = eventRate(metrics);
+                hits += metrics.getFitnessCache().getHits();
+                lookups += metrics.getFitnessCache().getHits() + metrics.getFitnessCache().getMisses();
+            }
+            String name = instance[0].equals("-f") ? new File(instance[1]).getName()
+                                                   : String.join(" x ", Arrays.copyOfRange(instance, 1, 3));
+            System.out.printf("%24s %16.0f %16.0f %9.2f%%%n", name, median(plain), median(cached),
+                              lookups == 0 ? 0 : 100.0 * hits / lookups);
+        }
+    }
+
+    /**
+     * Runs an instance once.
+     *
+     * @param instance The instance arguments of the parser.
+     * @param seed The seed of the run.
+     * @param capacity The capacity of the fitness cache, or 0 to disable it.
+     * @return The metrics of the run.
+     */
+    private static SimulationMetrics run(String[] instance, int seed, int capacity) {
+        String[] args = Arrays.copyOf(instance, instance.length + 4);
+        args[instance.length] = "--seed";
+        args[instance.length + 1] = Integer.toString(seed);
+        args[instance.length + 2] = "--fitness-cache";
+        args[instance.length + 3] = Integer.toString(capacity);
+        Main main = Main.createSimulations(new Parser(args), 1).get(0);
+        main.run();
+        return main.getMetrics();
+    }
+
+    /**
+     * Computes the event throughput of a finished run.
+     *
+     * @param metrics The metrics of the run.
+     * @return The number of events per second.
+     */
+    private static double eventRate(SimulationMetrics metrics) {
+        return metrics.getEvents() / (metrics.getElapsedNanos() / 1e9);
+    }
+
+    /**
+     * Computes the median of the values, sorting them.
+     *
+     * @param values The values.
+     * @return The median.
+     */
+    private static double median(double[] values) {
+        Arrays.sort(values);
+        return values[values.length / 2];
+    }
+}
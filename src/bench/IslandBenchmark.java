@@ -0,0 +1,108 @@
+package src.bench;
+
+import src.main.IslandModel;
+import src.main.Main;
+import src.main.MultiStart;
+import src.service.Topology;
+import src.util.Parser;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compares the wall-clock time to reach a target comfort of a single population, independent
+ * multi-start runs and the island model on the SIM instances.
+ * <p>
+ * The target of an instance is the best comfort found by a calibration multi-start run. Each
+ * configuration is then run with several seeds until it reaches the target or the end of the
+ * simulation; the table reports how many seeds reached the target and their median time.
+ */
+public class IslandBenchmark {
+    private static final int WORKERS = Math.min(4, Runtime.getRuntime().availableProcessors());
+    private static final int SEEDS = 10;
+
+    public static void main(String[] args) {
+        File[] inputs = new File("SIM").listFiles((dir, name) -> name.startsWith("input") && name.endsWith(".txt"));
+        if (inputs == null) {
+            System.err.println("Run from the project root: SIM directory not found");
+            return;
+        }
+        Arrays.sort(inputs);
+        System.out.printf("%12s %8s %22s %22s %22s %22s%n", "instance", "target", "single (hits, ms)",
+                          "multi-start x" + WORKERS, "islands ring x" + WORKERS, "islands full x" + WORKERS);
+        for (File input : inputs) {
+            double target = calibrate(input);
+            String single = measure(input, target, Mode.SINGLE);
+            String multi = measure(input, target, Mode.MULTI_START);
+            String ring = measure(input, target, Mode.RING);
+            String full = measure(input, target, Mode.FULL);
+            System.out.printf("%12s %8.4f %22s %22s %22s %22s%n", input.getName(), target, single, multi, ring, full);
+        }
+    }
+
+    private enum Mode { SINGLE, MULTI_START, RING, FULL }
+
+    /**
+     * Finds the best comfort reached by a multi-start run with twice the benchmark workers.
+     *
+     * @param input The instance file.
+     * @return The target comfort.
+     */
+    private static double calibrate(File input) {
+        List<Main> runs = Main.createSimulations(parse(input, 1000), 2 * WORKERS);
+        new MultiStart(runs).runAll(WORKERS);
+        double best = 0;
+        for (Main main : runs) {
+            best = Math.max(best, main.getPopulation().getElite().getBest().getComfort());
+        }
+        return best;
+    }
+
+    /**
+     * Runs a configuration with every seed and summarizes the time to reach the target.
+     *
+     * @param input The instance file.
+     * @param target The target comfort.
+     * @param mode The configuration to run.
+     * @return The number of seeds that reached the target and their median wall time.
+     */
+    private static String measure(File input, double target, Mode mode) {
+        long[] times = new long[SEEDS];
+        int hits = 0;
+        for (int seed = 0; seed < SEEDS; seed++) {
+            List<Main> runs = Main.createSimulations(parse(input, seed), mode == Mode.SINGLE ? 1 : WORKERS);
+            runs.forEach(main -> main.setTargetComfort(target));
+            MultiStart multiStart;
+            if (mode == Mode.RING || mode == Mode.FULL) {
+                Topology topology = mode == Mode.RING ? Topology.RING : Topology.FULL;
+                multiStart = new IslandModel(runs, topology, 2, parse(input, seed).getTau() / 50.0).toMultiStart();
+            } else {
+                multiStart = new MultiStart(runs);
+                multiStart.setStopOnTarget(true);
+            }
+            long start = System.nanoTime();
+            multiStart.runAll(runs.size()); // one thread per island
+            long elapsed = System.nanoTime() - start;
+            if (runs.stream().anyMatch(Main::hasReachedTarget)) {
+                times[hits++] = elapsed;
+            }
+        }
+        if (hits == 0) {
+            return "0/" + SEEDS + "        -";
+        }
+        Arrays.sort(times, 0, hits);
+        return String.format("%d/%d %9.2f", hits, SEEDS, times[hits / 2] / 1e6);
+    }
+
+    /**
+     * Parses an instance file with the given seed.
+     *
+     * @param input The instance file.
+     * @param seed The seed of the run.
+     * @return The parser.
+     */
+    private static Parser parse(File input, long seed) {
+        return new Parser(new String[]{"-f", input.getPath(), "--seed", Long.toString(seed)});
+    }
+}
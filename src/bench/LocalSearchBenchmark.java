@@ -0,0 +1,117 @@
+package src.bench;
+
+import src.main.Main;
+import src.main.MultiStart;
+import src.util.Parser;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compares the wall-clock time to reach a target comfort without and with the local search stage,
+ * on the SIM instances and on a larger synthetic instance.
+ * <p>
+ * The target of an instance is the best comfort found by a calibration multi-start run without
+ * local search. Each configuration is then run with several seeds until it reaches the target or
+ * the end of the simulation; the table reports how many seeds reached the target and their median time.
+ */
+public class LocalSearchBenchmark {
+    private static final int WORKERS = Math.min(4, Runtime.getRuntime().availableProcessors());
+    private static final int SEEDS = 10;
+    private static final String[][] CONFIGURATIONS = {
+        {},
+        {"--local-search", "100"},
+        {"--local-search", "1000"},
+        {"--local-search", "1000", "--local-search-rate", "0.1"},
+    };
+    private static final String[] SYNTHETIC = {"-r", "30", "1000", "500", "500", "3000", "10", "10", "1"};
+
+    public static void main(String[] args) {
+        File[] inputs = new File("SIM").listFiles((dir, name) -> name.startsWith("input") && name.endsWith(".txt"));
+        if (inputs == null) {
+            System.err.println("Run from the project root: SIM directory not found");
+            return;
+        }
+        Arrays.sort(inputs);
+        List<String[]> instances = new ArrayList<>();
+        for (File input : inputs) {
+            instances.add(new String[]{"-f", input.getPath()});
+        }
+        instances.add(SYNTHETIC);
+
+        System.out.printf("%16s %8s %18s %18s %18s %18s%n", "instance", "target", "off (hits, ms)",
+                          "budget 100", "budget 1000", "1000, rate 0.1");
+        for (String[] instance : instances) {
+            double target = calibrate(instance);
+            StringBuilder row = new StringBuilder();
+            for (String[] configuration : CONFIGURATIONS) {
+                row.append(String.format(" %18s", measure(instance, configuration, target)));
+            }
+            String name = instance[0].equals("-f") ? new File(instance[1]).getName()
+                                                   : String.join(" x ", Arrays.copyOfRange(instance, 1, 3));
+            System.out.printf("%16s %8.4f%s%n", name, target, row);
+        }
+    }
+
+    /**
+     * Finds the best comfort reached by a multi-start run without local search.
+     *
+     * @param instance The instance arguments of the parser.
+     * @return The target comfort.
+     */
+    private static double calibrate(String[] instance) {
+        List<Main> runs = Main.createSimulations(parse(instance, new String[0], 1000), 2 * WORKERS);
+        new MultiStart(runs).runAll(WORKERS);
+        double best = 0;
+        for (Main main : runs) {
+            best = Math.max(best, main.getPopulation().getElite().getBest().getComfort());
+        }
+        return best;
+    }
+
+    /**
+     * Runs a configuration with every seed and summarizes the time to reach the target.
+     *
+     * @param instance The instance arguments of the parser.
+     * @param configuration The local search options.
+     * @param target The target comfort.
+     * @return The number of seeds that reached the target and their median wall time.
+     */
+    private static String measure(String[] instance, String[] configuration, double target) {
+        long[] times = new long[SEEDS];
+        int hits = 0;
+        for (int seed = 0; seed < SEEDS; seed++) {
+            Main main = Main.createSimulations(parse(instance, configuration, seed), 1).get(0);
+            main.setTargetComfort(target);
+            long start = System.nanoTime();
+            main.run();
+            long elapsed = System.nanoTime() - start;
+            if (main.hasReachedTarget()) {
+                times[hits++] = elapsed;
+            }
+        }
+        if (hits == 0) {
+            return "0/" + SEEDS + "        -";
+        }
+        Arrays.sort(times, 0, hits);
+        return String.format("%d/%d %9.2f", hits, SEEDS, times[hits / 2] / 1e6);
+    }
+
+    /**
+     * Parses an instance with the given options and seed.
+     *
+     * @param instance The instance arguments of the parser.
+     * @param configuration The local search options.
+     * @param seed The seed of the run.
+     * @return The parser.
+     */
+    private static Parser parse(String[] instance, String[] configuration, long seed) {
+        List<String> args = new ArrayList<>(Arrays.asList(instance));
+        args.addAll(Arrays.asList(configuration));
+        args.add("--seed");
+        args.add(Long.toString(seed));
+        return new Parser(args.toArray(new String[0]));
+    }
+}
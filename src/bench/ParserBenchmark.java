@@ -0,0 +1,98 @@
+package src.bench;
+
+import src.model.CostMatrix;
+import src.util.BinaryInstance;
+import src.util.Parser;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Scanner;
+import java.util.SplittableRandom;
+
+/**
+ * Measures the time to read a large instance file with the memory-mapped parser and with
+ * the Scanner-based reader it replaced, and the time to load its binary version.
+ */
+public class ParserBenchmark {
+    private static final int N = 10;
+    private static final int M = 200_000;
+    private static final int REPETITIONS = 3;
+
+    public static void main(String[] args) throws IOException {
+        Path file = Files.createTempFile("instance", ".txt");
+        Path binary = BinaryInstance.sidecarOf(file);
+        try {
+            writeInstance(file);
+            Parser text = new Parser(new String[]{"-f", file.toString(), "--seed", "0"});
+            new BinaryInstance(text.getN(), text.getM(), text.getTau(), text.getNu(), text.getNuMax(), text.getMu(),
+                               text.getRho(), text.getDelta(), text.getC(), 0, 0).write(binary);
+            System.out.printf("instance: %d x %d, %.1f MB%n", N, M, Files.size(file) / 1e6);
+            System.out.printf("%22s %22s %22s%n", "mapped (ms)", "scanner (ms)", "binary (ms)");
+            for (int i = 0; i < REPETITIONS; i++) {
+                long start = System.nanoTime();
+                new Parser(new String[]{"-f", file.toString(), "--seed", "0"});
+                double mapped = (System.nanoTime() - start) / 1e6;
+                start = System.nanoTime();
+                readWithScanner(file.toFile());
+                double scanner = (System.nanoTime() - start) / 1e6;
+                start = System.nanoTime();
+                new Parser(new String[]{"-f", binary.toString(), "--seed", "0"});
+                double loaded = (System.nanoTime() - start) / 1e6;
+                System.out.printf("%22.1f %22.1f %22.3f%n", mapped, scanner, loaded);
+            }
+        } finally {
+            Files.delete(file);
+            Files.deleteIfExists(binary);
+        }
+    }
+
+    /**
+     * Writes an instance with random costs between 1 and 10.
+     *
+     * @param file The file to write.
+     * @throws IOException If the file cannot be written.
+     */
+    private static void writeInstance(Path file) throws IOException {
+        SplittableRandom random = new SplittableRandom(1);
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            writer.write(N + " " + M + " 100 10 30 1 1 1\n");
+            for (int p = 0; p < N; p++) {
+                StringBuilder row = new StringBuilder();
+                for (int s = 0; s < M; s++) {
+                    row.append(random.nextInt(10) + 1).append(' ');
+                }
+                writer.write(row.append('\n').toString());
+            }
+        }
+    }
+
+    /**
+     * Reads the instance the way the parser did before, with a Scanner.
+     *
+     * @param file The instance file.
+     * @return The cost matrix.
+     * @throws IOException If the file cannot be read.
+     */
+    private static CostMatrix readWithScanner(File file) throws IOException {
+        try (Scanner scanner = new Scanner(file)) {
+            int n = scanner.nextInt();
+            int m = scanner.nextInt();
+            for (int i = 0; i < 3; i++) {
+                scanner.nextInt();
+            }
+            for (int i = 0; i < 3; i++) {
+                scanner.nextDouble();
+            }
+            CostMatrix.Builder builder = new CostMatrix.Builder(n, m, CostMatrix.Layout.BY_SYSTEM);
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < m; j++) {
+                    builder.set(i, j, scanner.nextInt());
+                }
+            }
+            return builder.build();
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package src.bench;
+
+import src.model.CostMatrix;
+import src.model.Individual;
+import src.service.EventFactory;
+import src.service.EventType;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Checks that the competing-rates sampler draws the same distribution as the classic
+ * minimum of three exponentials, and compares their throughput.
+ * <p>
+ * For several comfort values and rate parameters, the event types drawn by each sampler
+ * are compared with the theoretical probabilities by a chi-square test, and the event
+ * times of the two samplers with each other by a two-sample Kolmogorov-Smirnov test,
+ * both at the 0.1% level. The program exits with status 1 if a test rejects, which fails {@code make bench}.
+ */
+public class SamplerBenchmark {
+    private static final int SAMPLES = 200_000;
+    private static final int TIMED_DRAWS = 5_000_000;
+    private static final double CHI_SQUARE_CRITICAL = 13.816; // 2 degrees of freedom, alpha = 0.001
+    private static final double KS_COEFFICIENT = 1.949; // alpha = 0.001
+    private static final double[] COMFORTS = {0.05, 0.3, 0.7, 0.95};
+    private static final double[][] PARAMETERS = {{1, 1, 1}, {10, 1, 3}, {0.5, 4, 1}}; // reproduction, mutation, death
+
+    public static void main(String[] args) {
+        CostMatrix costs = BenchmarkSupport.randomCosts(new SplittableRandom(3), 4, 10);
+        Individual individual = BenchmarkSupport.randomIndividual(new SplittableRandom(4), costs);
+        boolean passed = true;
+
+        System.out.printf("%8s %17s %12s %12s %10s%n", "comfort", "parameters", "chi2 classic", "chi2 compet.", "KS");
+        for (double[] parameters : PARAMETERS) {
+            for (double comfort : COMFORTS) {
+                individual.setComfort(comfort);
+                double[] expected = expectedProbabilities(comfort, parameters);
+                Sample classic = sample(EventFactory.Sampler.CLASSIC, parameters, individual, 11);
+                Sample competing = sample(EventFactory.Sampler.COMPETING, parameters, individual, 12);
+                double chiClassic = chiSquare(classic.counts, expected);
+                double chiCompeting = chiSquare(competing.counts, expected);
+                double ks = kolmogorovSmirnov(classic.times, competing.times);
+                double ksCritical = KS_COEFFICIENT * Math.sqrt(2.0 / SAMPLES);
+                boolean ok = chiClassic < CHI_SQUARE_CRITICAL && chiCompeting < CHI_SQUARE_CRITICAL && ks < ksCritical;
+                passed &= ok;
+                System.out.printf("%8.2f %17s %12.2f %12.2f %10.5f %s%n", comfort, Arrays.toString(parameters),
+                                  chiClassic, chiCompeting, ks, ok ? "" : "REJECTED");
+            }
+        }
+        System.out.println(passed ? "Distributions match at the 0.1% level" : "Some distributions differ at the 0.1% level");
+
+        System.out.printf("%n%10s %20s %20s%n", "sampler", "cached (ns/event)", "comfort changed");
+        for (int round = 0; round < 2; round++) {
+            for (EventFactory.Sampler sampler : EventFactory.Sampler.values()) {
+                double cached = timeDraws(sampler, individual, false);
+                double changed = timeDraws(sampler, individual, true);
+                if (round == 1) {
+                    System.out.printf("%10s %20.1f %20.1f%n", sampler, cached, changed);
+                }
+            }
+        }
+        if (!passed) {
+            System.exit(1); // fails make bench
+        }
+    }
+
+    /**
+     * Draws event types and delays with the given sampler.
+     *
+     * @param sampler The sampler to use.
+     * @param parameters The reproduction, mutation and death parameters.
+     * @param individual The individual to draw events for.
+     * @param seed The seed of the random generator.
+     * @return The drawn events.
+     */
+    private static Sample sample(EventFactory.Sampler sampler, double[] parameters, Individual individual, long seed) {
+        EventFactory factory = new EventFactory(parameters[0], parameters[1], parameters[2], new SplittableRandom(seed));
+        factory.setSampler(sampler);
+        Sample sample = new Sample();
+        for (int i = 0; i < SAMPLES; i++) {
+            factory.createEvent(individual, 0);
+            sample.counts[individual.getEventType().ordinal()]++;
+            sample.times[i] = individual.getTime();
+        }
+        Arrays.sort(sample.times);
+        return sample;
+    }
+
+    /**
+     * Computes the probability of each event type being the earliest.
+     *
+     * @param comfort The comfort of the individual.
+     * @param parameters The reproduction, mutation and death parameters.
+     * @return The probabilities indexed by event type ordinal.
+     */
+    private static double[] expectedProbabilities(double comfort, double[] parameters) {
+        double[] rates = new double[EventType.values().length];
+        rates[EventType.REPRODUCE.ordinal()] = 1 / ((1 - Math.log(comfort)) * parameters[0]);
+        rates[EventType.MUTATE.ordinal()] = 1 / ((1 - Math.log(comfort)) * parameters[1]);
+        rates[EventType.DEATH.ordinal()] = 1 / ((1 - Math.log(1 - comfort)) * parameters[2]);
+        double total = 0;
+        for (double rate : rates) {
+            total += rate;
+        }
+        for (int i = 0; i < rates.length; i++) {
+            rates[i] /= total;
+        }
+        return rates;
+    }
+
+    /**
+     * Computes Pearson's chi-square statistic of observed counts against probabilities.
+     *
+     * @param counts The observed counts.
+     * @param probabilities The expected probabilities.
+     * @return The chi-square statistic.
+     */
+    private static double chiSquare(long[] counts, double[] probabilities) {
+        double statistic = 0;
+        for (int i = 0; i < counts.length; i++) {
+            double expected = probabilities[i] * SAMPLES;
+            statistic += (counts[i] - expected) * (counts[i] - expected) / expected;
+        }
+        return statistic;
+    }
+
+    /**
+     * Computes the two-sample Kolmogorov-Smirnov statistic of two sorted samples.
+     *
+     * @param a The first sorted sample.
+     * @param b The second sorted sample.
+     * @return The largest distance between the empirical distribution functions.
+     */
+    private static double kolmogorovSmirnov(double[] a, double[] b) {
+        int i = 0;
+        int j = 0;
+        double distance = 0;
+        while (i < a.length && j < b.length) {
+            double x = Math.min(a[i], b[j]);
+            while (i < a.length && a[i] <= x) {
+                i++;
+            }
+            while (j < b.length && b[j] <= x) {
+                j++;
+            }
+            distance = Math.max(distance, Math.abs(i / (double) a.length - j / (double) b.length));
+        }
+        return distance;
+    }
+
+    /**
+     * Times createEvent with the given sampler.
+     *
+     * @param sampler The sampler to use.
+     * @param individual The individual to draw events for.
+     * @param changeComfort Whether the comfort changes before every draw, invalidating the cached rates.
+     * @return The average time per event in nanoseconds.
+     */
+    private static double timeDraws(EventFactory.Sampler sampler, Individual individual, boolean changeComfort) {
+        EventFactory factory = new EventFactory(1, 1, 1, new SplittableRandom(5));
+        factory.setSampler(sampler);
+        double sink = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < TIMED_DRAWS; i++) {
+            if (changeComfort) {
+                individual.setComfort(0.2 + (i & 255) / 512.0);
+            }
+            factory.createEvent(individual, 0);
+            sink += individual.getTime();
+        }
+        long elapsed = System.nanoTime() - start;
+        if (sink < 0) {
+            System.out.println(sink);
+        }
+        return elapsed / (double) TIMED_DRAWS;
+    }
+
+    /**
+     * Event types and sorted delays drawn by one sampler.
+     */
+    private static class Sample {
+        private final long[] counts = new long[EventType.values().length];
+        private final double[] times = new double[SAMPLES];
+    }
+}
@@ -0,0 +1,136 @@
+package src.bench;
+
+import src.main.Main;
+import src.main.MultiStart;
+import src.model.CostMatrix;
+import src.model.Individual;
+import src.service.WarmStart;
+import src.util.Parser;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Compares the wall-clock time to reach a target comfort with a purely random initial population
+ * and with part of it seeded by constructive heuristics, then times the seeded construction of a
+ * large population sequentially and in parallel.
+ * <p>
+ * The target of an instance is the best comfort found by a calibration multi-start run with random
+ * seeding. Each configuration is then run with several seeds until it reaches the target or the end
+ * of the simulation; the table reports how many seeds reached the target and their median time,
+ * which includes building the initial population.
+ */
+public class WarmStartBenchmark {
+    private static final int WORKERS = Math.min(4, Runtime.getRuntime().availableProcessors());
+    private static final int SEEDS = 10;
+    private static final String[] SHARES = {"0", "0.1", "0.5"};
+    private static final String[] SYNTHETIC = {"-r", "30", "1000", "500", "500", "3000", "10", "10", "1"};
+
+    public static void main(String[] args) {
+        File[] inputs = new File("SIM").listFiles((dir, name) -> name.startsWith("input") && name.endsWith(".txt"));
+        if (inputs == null) {
+            System.err.println("Run from the project root: SIM directory not found");
+            return;
+        }
+        Arrays.sort(inputs);
+        List<String[]> instances = new ArrayList<>();
+        for (File input : inputs) {
+            instances.add(new String[]{"-f", input.getPath()});
+        }
+        instances.add(SYNTHETIC);
+
+        System.out.printf("%16s %8s %18s %18s %18s%n", "instance", "target", "random (hits, ms)", "seeded 10%", "seeded 50%");
+        for (String[] instance : instances) {
+            double target = calibrate(instance);
+            StringBuilder row = new StringBuilder();
+            for (String share : SHARES) {
+                row.append(String.format(" %18s", measure(instance, share, target)));
+            }
+            String name = instance[0].equals("-f") ? new File(instance[1]).getName()
+                                                   : String.join(" x ", Arrays.copyOfRange(instance, 1, 3));
+            System.out.printf("%16s %8.4f%s%n", name, target, row);
+        }
+
+        CostMatrix costs = BenchmarkSupport.randomCosts(new SplittableRandom(7), 50, 5000);
+        System.out.printf("%nseeding 1000 individuals, 50 patrols x 5000 systems%n");
+        List<Individual> sequential = null;
+        List<Individual> parallel = null;
+        long sequentialTime = Long.MAX_VALUE;
+        long parallelTime = Long.MAX_VALUE;
+        for (int round = 0; round < 5; round++) {
+            long start = System.nanoTime();
+            sequential = WarmStart.build(1000, costs, 1.0, new SplittableRandom(8), false);
+            sequentialTime = Math.min(sequentialTime, System.nanoTime() - start);
+            start = System.nanoTime();
+            parallel = WarmStart.build(1000, costs, 1.0, new SplittableRandom(8), true);
+            parallelTime = Math.min(parallelTime, System.nanoTime() - start);
+        }
+        boolean same = true;
+        for (int i = 0; i < sequential.size(); i++) {
+            same &= sequential.get(i).hasSameAllocation(parallel.get(i));
+        }
+        System.out.printf("sequential %.1f ms, parallel %.1f ms on %d cores, %s%n", sequentialTime / 1e6, parallelTime / 1e6,
+                          Runtime.getRuntime().availableProcessors(), same ? "same allocations" : "ALLOCATIONS DIFFER");
+    }
+
+    /**
+     * Finds the best comfort reached by a multi-start run with random seeding.
+     *
+     * @param instance The instance arguments of the parser.
+     * @return The target comfort.
+     */
+    private static double calibrate(String[] instance) {
+        List<Main> runs = Main.createSimulations(parse(instance, "0", 1000), 2 * WORKERS);
+        new MultiStart(runs).runAll(WORKERS);
+        double best = 0;
+        for (Main main : runs) {
+            best = Math.max(best, main.getPopulation().getElite().getBest().getComfort());
+        }
+        return best;
+    }
+
+    /**
+     * Runs a seeding share with every seed and summarizes the time to reach the target.
+     *
+     * @param instance The instance arguments of the parser.
+     * @param share The share of the initial population built by heuristics.
+     * @param target The target comfort.
+     * @return The number of seeds that reached the target and their median wall time.
+     */
+    private static String measure(String[] instance, String share, double target) {
+        long[] times = new long[SEEDS];
+        int hits = 0;
+        for (int seed = 0; seed < SEEDS; seed++) {
+            Main main = Main.createSimulations(parse(instance, share, seed), 1).get(0);
+            main.setTargetComfort(target);
+            long start = System.nanoTime();
+            main.run();
+            long elapsed = System.nanoTime() - start;
+            if (main.hasReachedTarget()) {
+                times[hits++] = elapsed;
+            }
+        }
+        if (hits == 0) {
+            return "0/" + SEEDS + "        -";
+        }
+        Arrays.sort(times, 0, hits);
+        return String.format("%d/%d %9.2f", hits, SEEDS, times[hits / 2] / 1e6);
+    }
+
+    /**
+     * Parses an instance with the given seeding share and seed.
+     *
+     * @param instance The instance arguments of the parser.
+     * @param share The share of the initial population built by heuristics.
+     * @param seed The seed of the run.
+     * @return The parser.
+     */
+    private static Parser parse(String[] instance, String share, long seed) {
+        List<String> args = new ArrayList<>(Arrays.asList(instance));
+        args.addAll(Arrays.asList("--warm-start", share, "--seed", Long.toString(seed)));
+        return new Parser(args.toArray(new String[0]));
+    }
+}
@@ -0,0 +1,83 @@
+package src.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import src.main.Main;
+import src.model.Individual;
+import src.service.Population;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one epidemic on a full population. A batch of populations is filled before every
+ * iteration, outside of the measurement, and each invocation culls the next one, so the single-shot
+ * time of a batch divided by its size is the cost of one epidemic.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, batchSize = EpidemicBenchmark.BATCH)
+@Measurement(iterations = 20, batchSize = EpidemicBenchmark.BATCH)
+@Fork(1)
+public class EpidemicBenchmark {
+    static final int BATCH = 16; // populations culled per iteration
+
+    @Param({"5", "50"})
+    public int n;
+
+    @Param({"20", "1000"})
+    public int m;
+
+    @Param({"100", "10000"})
+    public int population;
+
+    private Main main;
+    private Individual[] pool;
+    private SplittableRandom random;
+    private Population[] targets = new Population[BATCH];
+    private int next;
+
+    @Setup(Level.Trial)
+    public void createPool() {
+        random = new SplittableRandom(42);
+        main = JmhSupport.simulation(n, m, 100, population, 1);
+        pool = new Individual[population];
+        for (int i = 0; i < population; i++) {
+            pool[i] = JmhSupport.randomIndividual(main, random);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void fillPopulations() {
+        for (int b = 0; b < BATCH; b++) {
+            Population target = new Population(Integer.MAX_VALUE);
+            for (Individual individual : pool) {
+                // fresh individuals sharing the genomes of the pool, which an epidemic does not change
+                Individual copy = new Individual(individual.getGenome(), main.getCosts(), main.getTmin());
+                copy.setTime(random.nextDouble());
+                target.addIndividual(copy);
+                target.getScheduler().schedule(copy);
+            }
+            targets[b] = target;
+        }
+        next = 0;
+    }
+
+    @Benchmark
+    public Population handleEpidemic() {
+        Population target = targets[next++];
+        target.handleEpidemic(random);
+        return target;
+    }
+}
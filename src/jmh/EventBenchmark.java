@@ -0,0 +1,72 @@
+package src.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import src.model.Individual;
+import src.service.EventType;
+import src.service.Population;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the events of the simulation and of the scheduling around them, on a population of
+ * fixed size.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventBenchmark {
+
+    @Benchmark
+    public Individual mutate(PopulationState state) {
+        Individual individual = state.randomIndividual();
+        state.main.getEventFactory().getEvent(EventType.MUTATE).execute(individual, individual.getTime(), state.main);
+        return individual;
+    }
+
+    /**
+     * Reproduces a random individual, then removes the child so that the population keeps its size.
+     */
+    @Benchmark
+    public Individual reproduce(PopulationState state) {
+        Individual individual = state.randomIndividual();
+        state.main.getEventFactory().getEvent(EventType.REPRODUCE).execute(individual, individual.getTime(), state.main);
+        Population population = state.main.getPopulation();
+        Individual child = population.getIndividuals().get(population.getIndividuals().size() - 1);
+        population.removeIndividual(child);
+        return child;
+    }
+
+    @Benchmark
+    public Individual createEvent(PopulationState state) {
+        Individual individual = state.randomIndividual();
+        state.main.getEventFactory().createEvent(individual, individual.getTime());
+        return individual;
+    }
+
+    /**
+     * Looks up the earliest pending event, as the event loop does before every event.
+     */
+    @Benchmark
+    public Individual nextIndividual(PopulationState state) {
+        return state.main.getPopulation().getScheduler().peek();
+    }
+
+    /**
+     * Takes the earliest pending event and schedules the next event of the same individual, the
+     * scheduling work done around every event of the loop.
+     */
+    @Benchmark
+    public Individual nextIndividualAndReschedule(PopulationState state) {
+        Individual individual = state.main.getPopulation().getScheduler().peek();
+        state.main.setNextEvent(individual.getTime(), individual);
+        return individual;
+    }
+}
@@ -0,0 +1,36 @@
+package src.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import src.model.Individual;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the fitness evaluation of an individual: reading the makespan, and moving one system
+ * then reading the makespan again, as a mutation does.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IndividualBenchmark {
+
+    @Benchmark
+    public int calculatePolicingTime(PopulationState state) {
+        return state.randomIndividual().calculatePolicingTime();
+    }
+
+    @Benchmark
+    public int moveSystemAndCalculatePolicingTime(PopulationState state) {
+        Individual individual = state.randomIndividual();
+        individual.moveSystem(state.random.nextInt(state.m), state.random.nextInt(state.n));
+        return individual.calculatePolicingTime();
+    }
+}
@@ -0,0 +1,64 @@
+package src.jmh;
+
+import src.main.Main;
+import src.model.Individual;
+import src.util.Parser;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Helpers shared by the JMH benchmarks to build simulations of synthetic instances.
+ */
+final class JmhSupport {
+
+    private JmhSupport() {
+    }
+
+    /**
+     * Creates a simulation of a random instance with costs between 1 and 10, the rates of the
+     * Makefile example run and a maximum population twice the initial one.
+     *
+     * @param n The number of patrols.
+     * @param m The number of planetary systems.
+     * @param tau The final instant of evolution.
+     * @param population The initial population size.
+     * @param seed The seed of the instance and of the run.
+     * @return The simulation, not started.
+     */
+    static Main simulation(int n, int m, int tau, int population, long seed) {
+        Parser parser = new Parser(new String[]{"-r", Integer.toString(n), Integer.toString(m), Integer.toString(tau),
+                                                Integer.toString(population), Integer.toString(2 * population),
+                                                "10", "1", "1", "--seed", Long.toString(seed)});
+        return Main.createSimulations(parser, 1).get(0);
+    }
+
+    /**
+     * Creates an individual with a uniformly random allocation for the instance of a simulation.
+     *
+     * @param main The simulation.
+     * @param random The random generator.
+     * @return The individual.
+     */
+    static Individual randomIndividual(Main main, RandomGenerator random) {
+        int[] genome = new int[main.getCosts().getM()];
+        for (int s = 0; s < genome.length; s++) {
+            genome[s] = random.nextInt(main.getCosts().getN());
+        }
+        return new Individual(genome, main.getCosts(), main.getTmin());
+    }
+
+    /**
+     * Adds random individuals to the population of a simulation and schedules their first event.
+     *
+     * @param main The simulation.
+     * @param count The number of individuals to add.
+     * @param random The random generator.
+     */
+    static void populate(Main main, int count, RandomGenerator random) {
+        for (int i = 0; i < count; i++) {
+            Individual individual = randomIndividual(main, random);
+            main.getPopulation().addIndividual(individual);
+            main.setNextEvent(0, individual);
+        }
+    }
+}
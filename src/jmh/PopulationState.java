@@ -0,0 +1,46 @@
+package src.jmh;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import src.main.Main;
+import src.model.Individual;
+
+import java.util.SplittableRandom;
+
+/**
+ * Simulation of a synthetic instance with a populated, scheduled population, shared by the
+ * benchmarks of single operations.
+ */
+@State(Scope.Thread)
+public class PopulationState {
+    @Param({"5", "50"})
+    public int n;
+
+    @Param({"20", "1000"})
+    public int m;
+
+    @Param({"100", "10000"})
+    public int population;
+
+    Main main;
+    SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        random = new SplittableRandom(42);
+        main = JmhSupport.simulation(n, m, 100, population, 1);
+        JmhSupport.populate(main, population, random);
+    }
+
+    /**
+     * Picks a uniformly random living individual.
+     *
+     * @return The individual.
+     */
+    Individual randomIndividual() {
+        return main.getPopulation().getIndividuals().get(random.nextInt(main.getPopulation().getIndividuals().size()));
+    }
+}
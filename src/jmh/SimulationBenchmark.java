@@ -0,0 +1,80 @@
+package src.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import src.main.Main;
+import src.util.Parser;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a complete run, on the SIM instances and on synthetic instances. Each run starts from
+ * a fresh simulation with the same seed. Run from the project root so that SIM is found.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class SimulationBenchmark {
+
+    /**
+     * Fresh simulation of one of the SIM instances.
+     */
+    @State(Scope.Thread)
+    public static class SimInstance {
+        @Param({"SIM/input1.txt", "SIM/input2.txt", "SIM/input3.txt", "SIM/input4.txt", "SIM/input5.txt"})
+        public String file;
+
+        Main main;
+
+        @Setup(Level.Invocation)
+        public void setUp() {
+            main = Main.createSimulations(new Parser(new String[]{"-f", file, "--seed", "1"}), 1).get(0);
+        }
+    }
+
+    /**
+     * Fresh simulation of a synthetic instance.
+     */
+    @State(Scope.Thread)
+    public static class SyntheticInstance {
+        @Param({"5", "50"})
+        public int n;
+
+        @Param({"20", "1000"})
+        public int m;
+
+        @Param({"100", "10000"})
+        public int population;
+
+        Main main;
+
+        @Setup(Level.Invocation)
+        public void setUp() {
+            main = JmhSupport.simulation(n, m, 10, population, 1);
+        }
+    }
+
+    @Benchmark
+    public Main runSimInstance(SimInstance instance) {
+        instance.main.run();
+        return instance.main;
+    }
+
+    @Benchmark
+    public Main runSyntheticInstance(SyntheticInstance instance) {
+        instance.main.run();
+        return instance.main;
+    }
+}
@@ -0,0 +1,307 @@
+package src.main;
+
+import src.service.ExactSolver;
+import src.service.Observation;
+import src.util.BinaryInstance;
+import src.util.ObservationSink;
+import src.util.Parser;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Solves many instance files in one JVM, so that only the first instances pay for start-up and JIT warm-up.
+ * <p>
+ * The instances are the files of a directory, without the sidecar caches of the text files it
+ * holds, or the paths listed in a manifest, one per line, relative to the manifest. They are run
+ * on a bounded pool of workers, each instance with the options given after the input and with
+ * its share of the cores. The observations of an instance are written to their own file in the
+ * output directory as they are produced, and a summary table with the wall time, event rate and
+ * final result of every instance is written to that directory and to the standard output.
+ * <p>
+ * Usage: {@code java -cp project.jar src.main.Batch <directory|manifest> [--workers k] [--batch-output dir] [options]}
+ */
+public class Batch {
+    private static final String SUMMARY = "summary.txt";
+
+    private final List<Path> instances;
+    private final Path outputDirectory;
+    private final List<String> options;
+    private final ObservationSink.Format format;
+
+    /**
+     * Result of one instance, as listed in the summary.
+     */
+    static class Result {
+        final Path instance;
+        final String solver;
+        final double seconds;
+        final Observation last;
+        final String error;
+
+        /**
+         * Constructs a Result.
+         *
+         * @param instance The instance file.
+         * @param solver The solver that produced the result, or "-" if the instance failed.
+         * @param seconds The wall time of the instance, from reading it to writing its last observation.
+         * @param last The last observation of the instance, or null if it failed.
+         * @param error The reason of the failure, or null.
+         */
+        Result(Path instance, String solver, double seconds, Observation last, String error) {
+            this.instance = instance;
+            this.solver = solver;
+            this.seconds = seconds;
+            this.last = last;
+            this.error = error;
+        }
+    }
+
+    /**
+     * Constructs a Batch.
+     *
+     * @param instances The instance files.
+     * @param outputDirectory The directory receiving the observation files and the summary.
+     * @param options The options passed to every instance.
+     * @param format The output format of the observations, which sets the extension of their files.
+     */
+    public Batch(List<Path> instances, Path outputDirectory, List<String> options, ObservationSink.Format format) {
+        this.instances = instances;
+        this.outputDirectory = outputDirectory;
+        this.options = options;
+        this.format = format;
+    }
+
+    /**
+     * Lists the instances of a directory or a manifest.
+     *
+     * @param input A directory of instance files, or a manifest listing one instance path per line;
+     *              blank lines and lines starting with # are skipped.
+     * @return The instance files, in name order for a directory and in listed order for a manifest.
+     * @throws IOException If the directory or the manifest cannot be read.
+     */
+    public static List<Path> listInstances(Path input) throws IOException {
+        if (!Files.isDirectory(input)) {
+            Path base = input.toAbsolutePath().getParent();
+            return Files.readAllLines(input, StandardCharsets.UTF_8).stream()
+                        .map(String::trim)
+                        .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                        .map(base::resolve)
+                        .collect(Collectors.toList());
+        }
+        List<Path> files;
+        try (Stream<Path> entries = Files.list(input)) {
+            files = entries.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+        Set<Path> sidecars = new HashSet<>();
+        for (Path file : files) {
+            sidecars.add(BinaryInstance.sidecarOf(file));
+        }
+        files.removeIf(sidecars::contains);
+        return files;
+    }
+
+    /**
+     * Runs every instance on a pool of workers and writes the summary.
+     *
+     * @param workers The number of instances running at the same time.
+     * @param out The destination of the summary table, besides the summary file.
+     * @return The results, in instance order.
+     * @throws IOException If the output directory or the summary cannot be written.
+     */
+    public List<Result> run(int workers, PrintStream out) throws IOException {
+        Files.createDirectories(outputDirectory);
+        List<Path> outputs = outputFiles();
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / workers);
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, Math.min(workers, instances.size())));
+        List<Result> results = new ArrayList<>(instances.size());
+        try {
+            List<Future<Result>> futures = new ArrayList<>(instances.size());
+            for (int i = 0; i < instances.size(); i++) {
+                Path instance = instances.get(i);
+                Path output = outputs.get(i);
+                futures.add(pool.submit(() -> solve(instance, output, threads)));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                Result result = futures.get(i).get();
+                results.add(result);
+                System.err.println("[" + (i + 1) + "/" + futures.size() + "] " + instances.get(i)
+                                   + (result.error == null ? "" : ": " + result.error));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the instances", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("An instance failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+
+        String table = summarize(results);
+        Files.writeString(outputDirectory.resolve(SUMMARY), table, StandardCharsets.UTF_8);
+        out.print(table);
+        out.flush();
+        return results;
+    }
+
+    /**
+     * Names the observation file of every instance after the instance, with the extension of the
+     * format, and numbers the names used more than once.
+     *
+     * @return The observation files, in instance order.
+     */
+    private List<Path> outputFiles() {
+        String extension = format == ObservationSink.Format.HUMAN ? ".out" : "." + format.name().toLowerCase();
+        Set<String> used = new HashSet<>();
+        used.add(SUMMARY);
+        List<Path> outputs = new ArrayList<>(instances.size());
+        for (Path instance : instances) {
+            String name = instance.getFileName().toString();
+            int dot = name.lastIndexOf('.');
+            String stem = dot > 0 ? name.substring(0, dot) : name;
+            String file = stem + extension;
+            for (int k = 2; !used.add(file); k++) {
+                file = stem + "-" + k + extension;
+            }
+            outputs.add(outputDirectory.resolve(file));
+        }
+        return outputs;
+    }
+
+    /**
+     * Reads and solves one instance, writing its observations to its own file.
+     *
+     * @param instance The instance file.
+     * @param output The observation file.
+     * @param threads The number of threads of the instance, unless the options set it.
+     * @return The result of the instance.
+     */
+    private Result solve(Path instance, Path output, int threads) {
+        long start = System.nanoTime();
+        List<String> args = new ArrayList<>(List.of("-f", instance.toString(), "--threads", Integer.toString(threads)));
+        args.addAll(options);
+        Observation[] last = new Observation[1];
+        try {
+            Parser parser = new Parser(args.toArray(new String[0]));
+            ExactSolver.Mode solver;
+            try (ObservationSink sink = ObservationSink.open(format, output, parser.getOutputQueue())) {
+                solver = Main.solve(parser, observation -> {
+                    last[0] = observation;
+                    sink.accept(observation);
+                });
+            }
+            return new Result(instance, solver.name().toLowerCase(), (System.nanoTime() - start) / 1e9, last[0], null);
+        } catch (IllegalArgumentException | IOException | UncheckedIOException e) {
+            return new Result(instance, "-", (System.nanoTime() - start) / 1e9, null, e.getMessage());
+        } catch (RuntimeException e) {
+            // a failing instance is reported in the summary instead of stopping the batch
+            return new Result(instance, "-", (System.nanoTime() - start) / 1e9, null, e.getClass().getName() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Formats the summary table, one line per instance.
+     *
+     * @param results The results.
+     * @return The table.
+     */
+    static String summarize(List<Result> results) {
+        StringBuilder table = new StringBuilder();
+        table.append(String.format("%-24s %-9s %10s %12s %14s %12s %10s %9s%n", "instance", "solver", "wall (ms)",
+                                   "events", "events/s", "policing", "comfort", "gap"));
+        for (Result result : results) {
+            String name = result.instance.getFileName().toString();
+            if (result.last == null) {
+                table.append(String.format("%-24s %-9s %10.1f  %s%n", name, result.solver, result.seconds * 1e3,
+                                           result.error == null ? "no observation" : "error: " + result.error));
+                continue;
+            }
+            Observation last = result.last;
+            double gap = last.getOptimalityGap();
+            table.append(String.format("%-24s %-9s %10.1f %12d %14.0f %12.1f %10.6f %9s%n", name, result.solver,
+                                       result.seconds * 1e3, last.getEvents(), last.getEvents() / result.seconds,
+                                       last.getBest().getPolicingTime(), last.getBest().getComfort(),
+                                       Double.isNaN(gap) ? "-" : String.format("%.2f%%", 100 * gap)));
+        }
+        return table.toString();
+    }
+
+    /**
+     * Runs the batch described by the command-line arguments.
+     *
+     * @param args The directory or manifest, then the batch and instance options.
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("Usage: Batch <directory|manifest> [--workers k] [--batch-output dir] [options]");
+            System.exit(1);
+        }
+        int workers = Runtime.getRuntime().availableProcessors();
+        Path outputDirectory = Path.of("batch-output");
+        ObservationSink.Format format = ObservationSink.Format.HUMAN;
+        List<String> options = new ArrayList<>();
+        for (int i = 1; i < args.length; i += 2) {
+            if (i + 1 >= args.length) {
+                System.err.println("Missing value for " + args[i]);
+                System.exit(1);
+            }
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--workers":
+                    try {
+                        workers = Integer.parseInt(value);
+                    } catch (NumberFormatException e) {
+                        workers = 0;
+                    }
+                    if (workers < 1) {
+                        System.err.println("Invalid value for --workers: " + value);
+                        System.exit(1);
+                    }
+                    break;
+                case "--batch-output":
+                    outputDirectory = Path.of(value);
+                    break;
+                case "--output-file":
+                case "--checkpoint":
+                case "--resume":
+                    System.err.println("Option " + args[i] + " is not supported in batch mode");
+                    System.exit(1);
+                    break;
+                case "--output":
+                    try {
+                        format = ObservationSink.Format.valueOf(value.toUpperCase());
+                    } catch (IllegalArgumentException e) {
+                        System.err.println("Invalid value for --output: " + value);
+                        System.exit(1);
+                    }
+                    options.add(args[i]);
+                    options.add(value);
+                    break;
+                default:
+                    options.add(args[i]);
+                    options.add(value);
+            }
+        }
+
+        try {
+            List<Path> instances = listInstances(Path.of(args[0]));
+            new Batch(instances, outputDirectory, options, format).run(workers, System.out);
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("Batch failed: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
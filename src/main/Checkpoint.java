@@ -0,0 +1,251 @@
+package src.main;
+
+import src.model.CostMatrix;
+import src.model.Individual;
+import src.service.EventFactory;
+import src.service.EventType;
+import src.service.Population;
+import src.service.ReproduceEvent;
+import src.util.SplitMix64;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary snapshot of the full state of a run, from which it continues exactly as if it had not stopped.
+ * <p>
+ * Little-endian layout: magic "PCKP", version, hash of the instance and parameters, n, m,
+ * gene width (1, 2 or 4 bytes), sampler, current time, event, epidemic and observation counters,
+ * time of the next migration, generator state, the shuffled system permutation of the reproduce
+ * event, then the individuals in population order (event type, event time, calendar index, genome,
+ * rank of each system within its patrol, which decides the system a mutation picks) and the elite
+ * genomes by decreasing comfort. Comforts and event rates are not stored: they are
+ * recomputed from the genomes, which gives the same values.
+ */
+public class Checkpoint {
+    static final int MAGIC = 0x504B4350; // "PCKP" read as a little-endian int
+    static final int VERSION = 2;
+
+    /**
+     * Serializes the state of a run, reusing the buffer when it is large enough.
+     *
+     * @param main The run, between two events.
+     * @param instanceHash The hash of the instance, from hashInstance.
+     * @param buffer A buffer to reuse, or null.
+     * @return The buffer holding the checkpoint, flipped for writing.
+     */
+    static ByteBuffer encode(Main main, long instanceHash, ByteBuffer buffer) {
+        if (!(main.getRandom() instanceof SplitMix64)) {
+            throw new IllegalStateException("Only runs using a SplitMix64 generator can be checkpointed");
+        }
+        Population population = main.getPopulation();
+        List<Individual> individuals = population.getIndividuals();
+        List<Individual> elite = population.getElite().getCandidates();
+        int[] permutation = reproduceEvent(main).getPermutation();
+        int n = main.getPatrols().size();
+        int m = main.getSystems().size();
+        int geneBytes = idBytes(n);
+        int rankBytes = idBytes(m);
+
+        long size = 80L + 4L * permutation.length + (long) individuals.size() * (13L + (long) m * (geneBytes + rankBytes))
+                    + (long) elite.size() * m * geneBytes;
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalStateException("The state of the run is too large for a checkpoint: " + size + " bytes");
+        }
+        if (buffer == null || buffer.capacity() < size) {
+            buffer = ByteBuffer.allocate((int) size);
+        }
+        buffer.clear().order(ByteOrder.LITTLE_ENDIAN);
+
+        buffer.putInt(MAGIC).putInt(VERSION).putLong(instanceHash)
+              .putInt(n).putInt(m).putInt(geneBytes)
+              .putInt(main.getEventFactory().getSampler().ordinal())
+              .putDouble(main.getCurrentTime())
+              .putInt(main.getEvents()).putInt(main.getEpidemics()).putInt(main.getObservationNumber())
+              .putDouble(main.getNextMigration())
+              .putLong(((SplitMix64) main.getRandom()).getState());
+        buffer.putInt(permutation.length);
+        for (int system : permutation) {
+            buffer.putInt(system);
+        }
+        buffer.putInt(individuals.size());
+        for (Individual individual : individuals) {
+            buffer.put((byte) individual.getEventType().ordinal())
+                  .putDouble(individual.getTime())
+                  .putInt(individual.getSchedulerIndex());
+            putIds(buffer, individual.getGenome(), geneBytes);
+            putIds(buffer, individual.getSystemRanks(), rankBytes);
+        }
+        buffer.putInt(elite.size());
+        for (Individual individual : elite) {
+            putIds(buffer, individual.getGenome(), geneBytes);
+        }
+        return buffer.flip();
+    }
+
+    /**
+     * Restores a run from a checkpoint. The run must have been created for the same instance
+     * and must not have started.
+     *
+     * @param main The run to restore.
+     * @param file The checkpoint file.
+     * @throws IOException If the file cannot be read, is not a checkpoint or belongs to another instance.
+     */
+    static void restore(Main main, Path file) throws IOException {
+        if (!(main.getRandom() instanceof SplitMix64)) {
+            throw new IllegalStateException("Only runs using a SplitMix64 generator can be resumed");
+        }
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException(file + ": not a checkpoint");
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException(file + ": unsupported checkpoint version " + version);
+            }
+            if (buffer.getLong() != hashInstance(main)) {
+                throw new IOException(file + ": checkpoint of another instance or parameters");
+            }
+            int n = buffer.getInt();
+            int m = buffer.getInt();
+            int geneBytes = buffer.getInt();
+            if (n != main.getPatrols().size() || m != main.getSystems().size() || geneBytes != idBytes(n)) {
+                throw new IOException(file + ": checkpoint of another instance or parameters");
+            }
+            EventFactory.Sampler sampler = EventFactory.Sampler.values()[buffer.getInt()];
+            double currentTime = buffer.getDouble();
+            int events = buffer.getInt();
+            int epidemics = buffer.getInt();
+            int observationNumber = buffer.getInt();
+            double nextMigration = buffer.getDouble();
+            long randomState = buffer.getLong();
+
+            int rankBytes = idBytes(m);
+            int[] permutation = new int[buffer.getInt()];
+            for (int i = 0; i < permutation.length; i++) {
+                permutation[i] = buffer.getInt();
+            }
+
+            CostMatrix costs = main.getCosts();
+            double tmin = main.getTmin();
+            Population population = main.getPopulation();
+            Individual[] calendar = new Individual[buffer.getInt()];
+            EventType[] types = EventType.values();
+            for (int i = 0; i < calendar.length; i++) {
+                EventType type = types[buffer.get()];
+                double time = buffer.getDouble();
+                int schedulerIndex = buffer.getInt();
+                Individual individual = new Individual(getIds(buffer, m, n, geneBytes), costs, tmin);
+                individual.setSystemRanks(getIds(buffer, m, m, rankBytes));
+                individual.setEventType(type);
+                individual.setTime(time);
+                population.addRestoredIndividual(individual);
+                calendar[schedulerIndex] = individual;
+            }
+            List<Individual> elite = new ArrayList<>();
+            for (int i = buffer.getInt(); i > 0; i--) {
+                elite.add(new Individual(getIds(buffer, m, n, geneBytes), costs, tmin));
+            }
+
+            // inserting in heap order never moves an entry, so the calendar is rebuilt as it was
+            for (Individual individual : calendar) {
+                population.getScheduler().schedule(individual);
+            }
+            population.getElite().restore(elite);
+            main.getEventFactory().setSampler(sampler);
+            reproduceEvent(main).setPermutation(permutation);
+            ((SplitMix64) main.getRandom()).setState(randomState);
+            main.restoreProgress(currentTime, events, epidemics, observationNumber, nextMigration);
+        } catch (RuntimeException e) {
+            throw new IOException(file + ": corrupted checkpoint (" + e.getMessage() + ")", e);
+        }
+    }
+
+    /**
+     * Hashes the instance and parameters of a run, so that a checkpoint is only resumed by a run of the same instance.
+     *
+     * @param main The run.
+     * @return The hash.
+     */
+    static long hashInstance(Main main) {
+        CostMatrix costs = main.getCosts();
+        long hash = main.hashParameters();
+        for (int p = 0; p < costs.getN(); p++) {
+            for (int s = 0; s < costs.getM(); s++) {
+                hash = (hash ^ costs.get(p, s)) * 0x100000001b3L;
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Gets the reproduce event of a run, whose system permutation is part of the state.
+     *
+     * @param main The run.
+     * @return The reproduce event.
+     */
+    private static ReproduceEvent reproduceEvent(Main main) {
+        return (ReproduceEvent) main.getEventFactory().getEvent(EventType.REPRODUCE);
+    }
+
+    /**
+     * Gets the number of bytes needed to store an id below a bound, such as a patrol id.
+     *
+     * @param bound The number of ids.
+     * @return 1, 2 or 4.
+     */
+    private static int idBytes(int bound) {
+        return bound <= 1 << 8 ? 1 : bound <= 1 << 16 ? 2 : 4;
+    }
+
+    /**
+     * Writes ids, such as a genome, with the given number of bytes per id.
+     *
+     * @param buffer The buffer to write to.
+     * @param ids The ids.
+     * @param idBytes The number of bytes per id.
+     */
+    private static void putIds(ByteBuffer buffer, int[] ids, int idBytes) {
+        for (int id : ids) {
+            if (idBytes == 1) {
+                buffer.put((byte) id);
+            } else if (idBytes == 2) {
+                buffer.putChar((char) id);
+            } else {
+                buffer.putInt(id);
+            }
+        }
+    }
+
+    /**
+     * Reads ids written by putIds.
+     *
+     * @param buffer The buffer to read from.
+     * @param length The number of ids, m for a genome.
+     * @param bound The number of valid ids, n for a genome.
+     * @param idBytes The number of bytes per id.
+     * @return The ids.
+     */
+    private static int[] getIds(ByteBuffer buffer, int length, int bound, int idBytes) {
+        int[] ids = new int[length];
+        for (int i = 0; i < length; i++) {
+            int id = idBytes == 1 ? Byte.toUnsignedInt(buffer.get())
+                     : idBytes == 2 ? buffer.getChar() : buffer.getInt();
+            if (id < 0 || id >= bound) {
+                throw new IllegalArgumentException("id out of range: " + id);
+            }
+            ids[i] = id;
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,140 @@
+package src.main;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Periodically saves the state of a run to a checkpoint file, from a background thread.
+ * <p>
+ * Two buffers are used in turn: the run serializes its state into a free buffer, which takes
+ * a single pass over the population, and goes on while the writer thread saves it. If both
+ * buffers are still being written the checkpoint is skipped rather than stalling the run.
+ * Each checkpoint is written under a temporary name and moved into place, so the file always
+ * holds a complete checkpoint. A write failure is reported by the next checkpoint or by close.
+ */
+public class Checkpointer implements Closeable {
+    private static final ByteBuffer END = ByteBuffer.allocate(0);
+
+    private final Path file;
+    private final long intervalNanos;
+    private final BlockingQueue<ByteBuffer> free = new ArrayBlockingQueue<>(2);
+    private final BlockingQueue<ByteBuffer> pending = new ArrayBlockingQueue<>(3);
+    private final Thread writer;
+    private long nextCheckpoint;
+    private boolean hashed;
+    private long instanceHash;
+    private volatile IOException failure;
+
+    /**
+     * Constructs a Checkpointer and starts its writer thread.
+     *
+     * @param file The checkpoint file, replaced by each checkpoint.
+     * @param intervalSeconds The minimum wall-clock time between two checkpoints.
+     */
+    public Checkpointer(Path file, double intervalSeconds) {
+        this.file = file;
+        this.intervalNanos = (long) (intervalSeconds * 1e9);
+        this.nextCheckpoint = System.nanoTime() + intervalNanos;
+        free.add(ByteBuffer.allocate(0));
+        free.add(ByteBuffer.allocate(0));
+        this.writer = new Thread(this::drain, "checkpoint-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Saves the state of the run if the interval has elapsed since the previous checkpoint.
+     * Must be called between two events.
+     *
+     * @param main The run.
+     * @throws UncheckedIOException If a previous checkpoint could not be written.
+     */
+    public void checkpoint(Main main) {
+        if (failure != null) {
+            throw new UncheckedIOException(failure);
+        }
+        long now = System.nanoTime();
+        if (now < nextCheckpoint) {
+            return;
+        }
+        ByteBuffer buffer = free.poll();
+        if (buffer == null) {
+            return;
+        }
+        if (!hashed) {
+            instanceHash = Checkpoint.hashInstance(main);
+            hashed = true;
+        }
+        pending.add(Checkpoint.encode(main, instanceHash, buffer));
+        nextCheckpoint = now + intervalNanos;
+    }
+
+    /**
+     * Waits until the pending checkpoints are written, then stops the writer thread.
+     *
+     * @throws IOException If a checkpoint could not be written.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            pending.put(END);
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Writes pending checkpoints until the end marker, then hands each buffer back to the run.
+     */
+    private void drain() {
+        try {
+            for (ByteBuffer buffer = pending.take(); buffer != END; buffer = pending.take()) {
+                if (failure == null) {
+                    try {
+                        write(buffer);
+                    } catch (IOException e) {
+                        failure = e;
+                    }
+                }
+                free.add(buffer);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Writes a checkpoint under a temporary name, then moves it over the checkpoint file.
+     *
+     * @param buffer The serialized checkpoint.
+     * @throws IOException If the file cannot be written.
+     */
+    private void write(ByteBuffer buffer) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE,
+                                                        StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+}
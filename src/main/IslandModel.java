@@ -0,0 +1,115 @@
+package src.main;
+
+import src.model.Individual;
+import src.service.Observation;
+import src.service.Topology;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.function.Consumer;
+
+/**
+ * Island model: several populations evolve concurrently and periodically exchange their best individuals.
+ * <p>
+ * Each island is a full simulation with its own scheduler, epidemics and random stream, running
+ * on its own thread. Every {@code migrationInterval} units of simulation time an island takes in
+ * the migrants waiting in its inbox and sends copies of its best living individuals to its
+ * neighbours. Inboxes are bounded queues and islands never wait for each other: when an inbox is
+ * full the extra migrants are dropped. Which migrants arrive before a given migration therefore
+ * depends on thread timing, so island runs are not reproducible from the seed alone.
+ */
+public class IslandModel {
+
+    private List<Main> islands;
+    private List<Queue<Individual>> inboxes;
+    private Topology topology;
+    private int migrants;
+
+    /**
+     * Constructs an IslandModel and connects the islands.
+     *
+     * @param islands The simulations to run as islands, each with its own random stream.
+     * @param topology The migration topology.
+     * @param migrants The number of individuals an island sends to each neighbour per migration.
+     * @param migrationInterval The simulation time between two migrations.
+     */
+    public IslandModel(List<Main> islands, Topology topology, int migrants, double migrationInterval) {
+        if (migrationInterval <= 0) {
+            throw new IllegalArgumentException("Migration interval must be positive: " + migrationInterval);
+        }
+        this.islands = islands;
+        this.topology = topology;
+        this.migrants = migrants;
+        int senders = topology == Topology.RING ? 1 : islands.size() - 1;
+        this.inboxes = new ArrayList<>(islands.size());
+        for (int i = 0; i < islands.size(); i++) {
+            inboxes.add(new ArrayBlockingQueue<>(Math.max(1, migrants * senders)));
+            int index = i;
+            islands.get(i).setMigration((island, currentTime) -> migrate(index, currentTime), migrationInterval);
+        }
+    }
+
+    /**
+     * Runs all islands until one reaches its target comfort or all reach the end of the simulation,
+     * and passes the merged observations to the sink. Every island runs on its own thread, since
+     * islands waiting for a free thread would miss the migrations of the others.
+     *
+     * @param sink The receiver of the merged observations.
+     */
+    public void run(Consumer<Observation> sink) {
+        toMultiStart().run(islands.size(), sink);
+    }
+
+    /**
+     * Wraps the connected islands in a MultiStart that stops all of them at the first one that
+     * reaches its target comfort. It must run them with one thread per island.
+     *
+     * @return The MultiStart running the islands.
+     */
+    public MultiStart toMultiStart() {
+        MultiStart multiStart = new MultiStart(islands);
+        multiStart.setStopOnTarget(true);
+        return multiStart;
+    }
+
+    /**
+     * Receives the waiting migrants of an island and sends its best individuals to its neighbours.
+     *
+     * @param index The index of the island.
+     * @param currentTime The current time in the island.
+     */
+    private void migrate(int index, double currentTime) {
+        Main island = islands.get(index);
+        Individual immigrant;
+        while ((immigrant = inboxes.get(index).poll()) != null) {
+            island.getPopulation().addIndividual(immigrant);
+            island.setNextEvent(currentTime, immigrant);
+        }
+
+        List<Individual> best = island.getPopulation().selectBest(migrants);
+        for (int neighbour = 0; neighbour < islands.size(); neighbour++) {
+            if (isNeighbour(index, neighbour)) {
+                for (Individual individual : best) {
+                    // Copies are made by the sender, so the receiver owns them exclusively
+                    inboxes.get(neighbour).offer(individual.deepCopy());
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks whether an island sends its migrants to another one.
+     *
+     * @param from The index of the sending island.
+     * @param to The index of the receiving island.
+     * @return True if the islands are connected in that direction.
+     */
+    private boolean isNeighbour(int from, int to) {
+        if (from == to) {
+            return false;
+        }
+        return topology == Topology.FULL || to == (from + 1) % islands.size();
+    }
+}
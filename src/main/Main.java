@@ -1,99 +1,117 @@
 package src.main;
 
+import src.metrics.MetricsReporter;
+import src.metrics.SimulationMetrics;
 import src.model.*;
 import src.service.*;
+import src.util.ObservationSink;
 import src.util.Parser;
+import src.util.RandomStreams;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.random.RandomGenerator;
 
 /**
  * The main class for running the simulation.
  */
 public class Main {
-    public  static Main instance;
     private Population population;
     private List<Patrol> patrols;
     private List<PlanetarySystem> systems;
+    private CostMatrix costs;
     private int tau;
     private int initialPopulation;
     private double deathRate;
     private double mutationRate;
     private double reproductionRate;
     private double t_min;
-    private Random random = new Random();
-    private Individual bestIndividual;
-    private List<Individual> candidateDistributions;
-
-    public Main(List<Patrol> patrols, List<PlanetarySystem> systems, 
+    private RandomGenerator random;
+    private EventFactory eventFactory;
+    private Consumer<Observation> observationListener = observation -> { };
+    private Migration migration;
+    private double migrationInterval;
+    private double targetComfort = 1;
+    private double warmStart = 0;
+    private int lowerBound = 0;
+    private volatile boolean stopRequested = false;
+    private SimulationMetrics metrics;
+    private Checkpointer checkpointer;
+    private int events;
+    private int epidemics;
+    private double currentTime;
+    private int observation_number;
+    private double nextMigration;
+    private static final int CHECKPOINT_CHECK_MASK = 1023; // the checkpoint clock is read every 1024 events
+
+    public Main(List<Patrol> patrols, List<PlanetarySystem> systems, CostMatrix costs,
                 int tau, int initialPopulation, int maxPopulation,
-                double deathRate, double mutationRate, double reproductionRate) {
+                double deathRate, double mutationRate, double reproductionRate, RandomGenerator random) {
         this.patrols = patrols;
         this.systems = systems;
+        this.costs = costs;
         this.tau = tau;
         this.initialPopulation = initialPopulation;
         this.deathRate = deathRate;
         this.mutationRate = mutationRate;
         this.reproductionRate = reproductionRate;
-        this.t_min = calculateTmin();
-        population = Population.getInstance(maxPopulation);
+        this.random = random;
+        this.t_min = calculateTmin(costs);
+        this.eventFactory = new EventFactory(reproductionRate, mutationRate, deathRate, random);
+        population = new Population(maxPopulation);
     }
 
 
     /**
-     * Returns the singleton instance of the Main class.
-     *
-     * @param patrols List of patrols.
-     * @param systems List of planetary systems.
-     * @param tau The final instant of evolution.
-     * @param initialPopulation Initial population size.
-     * @param maxPopulation Maximum population size.
-     * @param deathRate Death rate.
-     * @param mutationRate Mutation rate.
-     * @param reproductionRate Reproduction rate.
-     * @return The singleton instance of the Main class.
-     */
-    public static Main getInstance(List<Patrol> patrols, List<PlanetarySystem> systems, 
-                                   int tau, int initialPopulation, int maxPopulation,
-                                   double deathRate, double mutationRate, double reproductionRate) {
-        if (instance == null) {
-            instance = new Main(patrols, systems, tau, initialPopulation, maxPopulation, deathRate, mutationRate, reproductionRate);
-        }
-        return instance;
-    }
-
-    /**
-     * Calculates the minimum patrol time (tmin) across all planetary systems.
+     * Calculates the minimum patrol time (tmin) across all planetary systems, walking the costs in
+     * the order of their layout.
      *
+     * @param costs The time required by each patrol to pacify each system.
      * @return The minimum patrol time.
      */
-    private double calculateTmin() {
-        double tmin = 0;
-        for (PlanetarySystem system : systems) {
-            int minTime = Integer.MAX_VALUE;
-            for (Patrol patrol : patrols) {
-                minTime = Math.min(minTime, system.getTimeForPatrol(patrol.getId()));
+    private static double calculateTmin(CostMatrix costs) {
+        int[] minTimes = new int[costs.getM()];
+        Arrays.fill(minTimes, Integer.MAX_VALUE);
+        if (costs.getLayout() == CostMatrix.Layout.BY_SYSTEM) {
+            for (int system = 0; system < costs.getM(); system++) {
+                for (int patrol = 0; patrol < costs.getN(); patrol++) {
+                    minTimes[system] = Math.min(minTimes[system], costs.get(patrol, system));
+                }
+            }
+        } else {
+            for (int patrol = 0; patrol < costs.getN(); patrol++) {
+                for (int system = 0; system < costs.getM(); system++) {
+                    minTimes[system] = Math.min(minTimes[system], costs.get(patrol, system));
+                }
             }
+        }
+        double tmin = 0;
+        for (int minTime : minTimes) {
             tmin += minTime;
         }
-        return tmin / patrols.size();
+        return tmin / costs.getN();
     }
 
     /**
      * Generates the initial population for the simulation.
      */
     private void generateInitialPopulation() {
-        for (int i = 0; i < this.initialPopulation; i++) {
-            Map<Patrol, List<PlanetarySystem>> allocation = new HashMap<>();
+        int seeded = (int) Math.round(initialPopulation * warmStart);
+        for (int i = 0; i < this.initialPopulation - seeded; i++) {
+            int[] genome = new int[this.systems.size()];
 
-            // Generate a list of systems for each patrol
-            for (Patrol patrol : this.patrols) { 
-                allocation.put(patrol, new ArrayList<>());
+            // Assign each system to a random patrol
+            for (int system = 0; system < genome.length; system++) {
+                genome[system] = random.nextInt(patrols.size());
             }
-            for (PlanetarySystem system : this.systems) {
-                Patrol randomPatrol = patrols.get(random.nextInt(patrols.size()));
-                allocation.get(randomPatrol).add(system);
+            population.addIndividual(new Individual(genome, costs, t_min));
+        }
+        if (seeded > 0) {
+            for (Individual individual : WarmStart.build(seeded, costs, t_min, random)) {
+                population.addIndividual(individual);
             }
-            population.addIndividual(new Individual(allocation, t_min));
         }
     }
 
@@ -105,10 +123,15 @@ public class Main {
      * @param individual The individual for which to set the next event.
      */
     public void setNextEvent(double currentTime, Individual individual) {
-        EventFactory eventFactory = new EventFactory(reproductionRate, mutationRate, deathRate, random);
-        Event event = eventFactory.createEvent(individual);
-        individual.setEvent(event);
-        individual.setTime(event.getTime() + currentTime);
+        if (metrics != null && metrics.isSampling()) {
+            long start = System.nanoTime();
+            eventFactory.createEvent(individual, currentTime);
+            population.getScheduler().schedule(individual);
+            metrics.recordScheduling(System.nanoTime() - start);
+        } else {
+            eventFactory.createEvent(individual, currentTime);
+            population.getScheduler().schedule(individual);
+        }
     }
 
     /**
@@ -118,7 +141,7 @@ public class Main {
      * @param currentTime The current time in the simulation.
      */
     public void performEvent(Individual individual, double currentTime) {
-        Event event = individual.getEvent();
+        Event event = eventFactory.getEvent(individual.getEventType());
         event.execute(individual, currentTime, this);
     }
 
@@ -127,41 +150,74 @@ public class Main {
      */
     public void run() {
         generateInitialPopulation();
-        int events = 0;
-        int epidemics = 0;
-        double currentTime = 0.0;
-        double observationInterval = tau / 20.0;
-        int observation_number = 1;
+        events = 0;
+        epidemics = 0;
+        currentTime = 0.0;
+        observation_number = 1;
+        nextMigration = migrationInterval;
 
         //give me an alternative
         for (Individual individual : population.getIndividuals()) {
             setNextEvent(currentTime, individual);
         }
-        
-        bestIndividual = population.getBestIndividual().deepCopy();
-        candidateDistributions = population.getCandidateDistributions(Math.min(6, population.getIndividuals().size()))
-                                          .stream()
-                                          .map(Individual::deepCopy)
-                                          .collect(Collectors.toList());// 5 candidates + best
+        currentTime = getNextIndividual().getTime();
+        simulate();
+    }
+
+    /**
+     * Resumes the simulation from a checkpoint written by a run of the same instance.
+     * The resumed run goes on exactly as the interrupted one would have.
+     *
+     * @param file The checkpoint file.
+     * @throws IOException If the checkpoint cannot be read or belongs to another instance.
+     */
+    public void resume(Path file) throws IOException {
+        Checkpoint.restore(this, file);
+        simulate();
+    }
+
+    /**
+     * Runs the event loop from the current state until tau, extinction, the target comfort or a stop request.
+     */
+    private void simulate() {
+        double observationInterval = tau / 20.0;
+        if (metrics != null) {
+            metrics.start();
+        }
 
         Individual nextIndividual = getNextIndividual();
-        currentTime = nextIndividual.getTime();
 
-        while ( !(currentTime >= tau || (population.getIndividuals().isEmpty()) || bestIndividual.getComfort() >= 1)) {
+        while ( !(currentTime >= tau || (population.getIndividuals().isEmpty()) || hasReachedTarget() || stopRequested)) {
 
-            performEvent(nextIndividual, currentTime);
+            if (metrics == null) {
+                performEvent(nextIndividual, currentTime);
+            } else {
+                EventType type = nextIndividual.getEventType();
+                long start = metrics.beginEvent();
+                performEvent(nextIndividual, currentTime);
+                metrics.endEvent(type, start, population.getIndividuals().size(), currentTime);
+            }
             events++;
 
             if (population.getIndividuals().size() >= population.getMaxPopulation()) {
-                population.handleEpidemic();
+                if (metrics == null) {
+                    population.handleEpidemic(random);
+                } else {
+                    int before = population.getIndividuals().size();
+                    long start = System.nanoTime();
+                    population.handleEpidemic(random);
+                    metrics.recordEpidemic(System.nanoTime() - start, before, population.getIndividuals().size());
+                }
                 epidemics++;
             }
             if (population.getIndividuals().isEmpty()){ 
                 break;
             }
 
-            updateBestIndividual();
-            updateCandidateDistributions();
+            if (migration != null && currentTime >= nextMigration) {
+                migration.migrate(this, currentTime);
+                nextMigration = (Math.floor(currentTime / migrationInterval) + 1) * migrationInterval;
+            }
 
             nextIndividual = getNextIndividual();
 
@@ -177,16 +233,24 @@ public class Main {
             }
 
             currentTime = nextIndividual.getTime();
+
+            // the state is consistent here: the next event is at the top of the calendar
+            if (checkpointer != null && (events & CHECKPOINT_CHECK_MASK) == 0) {
+                checkpointer.checkpoint(this);
+            }
             }
 
-        if (population.getIndividuals().isEmpty() || bestIndividual.getComfort() ==1){
+        if (population.getIndividuals().isEmpty() || hasReachedTarget() || stopRequested){
             outputObservation(currentTime, events, epidemics, observation_number);
         }
+        if (metrics != null) {
+            metrics.stop();
+        }
 
     }
 
     /**
-     * Outputs observation details to the console.
+     * Passes the observation details to the observation listener.
      *
      * @param time             The present instant.
      * @param events           The number of realized events.
@@ -194,99 +258,198 @@ public class Main {
      * @param observation_number The observation number.
      */
     private void outputObservation(double time, int events, int epidemics, int observation_number) {
-        System.out.println("Observation number: " + observation_number);
-        System.out.println("Present instant: " + time);
-        System.out.println("Number of realized events: " + events);
-        System.out.println("Population size: " + population.getIndividuals().size());
-        System.out.println("Number of epidemics: " + epidemics);
-        System.out.println("Best distribution of the patrols: " + formatAllocation(bestIndividual.getAllocation()));
-        System.out.println("Empire policing time: " + bestIndividual.getPolicingTime());
-        System.out.println("Comfort: " + bestIndividual.getComfort());
-
-        int numberOfCandidates = Math.min(5, candidateDistributions.size() - 1);
-        for (int i = 1; i <= numberOfCandidates; i++) { // start at i=1 to ignore the best
-            Individual individual = candidateDistributions.get(i);
-            System.out.println("otherdist" + i + ": " + formatAllocation(individual.getAllocation()) + " : " + (individual.getPolicingTime()) + " : " + individual.getComfort());
-        }
-        System.out.println();
+        EliteTracker elite = population.getElite();
+        observationListener.accept(new Observation(observation_number, time, events, population.getIndividuals().size(),
+                                                   epidemics, elite.getBest(), elite.getCandidates(), lowerBound));
     }
 
     /**
-     * Formats the allocation map into a string representation.
+     * Gets the next individual based on their time.
      * 
-     * @param allocation The allocation map to format.
-     * @return A string representation of the allocation.
+     * @return The next individual.
      */
-    private String formatAllocation(Map<Patrol, List<PlanetarySystem>> allocation) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("{");
-
-        // Extract entries and sort by patrol ID
-        List<Map.Entry<Patrol, List<PlanetarySystem>>> entries = new ArrayList<>(allocation.entrySet());
-        entries.sort(Comparator.comparingInt(e -> e.getKey().getId()));
+    private Individual getNextIndividual(){
+        return population.getScheduler().peek();
+    }
+    
+    /**
+     * Sets the listener that receives the observations of the run, such as an ObservationSink.
+     * 
+     * @param observationListener The observation listener.
+     */
+    public void setObservationListener(Consumer<Observation> observationListener) {
+        this.observationListener = observationListener;
+    }
 
-        boolean firstPatrol = true;
-        for (Map.Entry<Patrol, List<PlanetarySystem>> entry : entries) {
-            if (!firstPatrol) {
-                sb.append(", ");
-            }
-            firstPatrol = false;
-            sb.append("{");
-            // sb.append(entry.getKey().getId()).append(": ");
-            for (int i = 0; i < entry.getValue().size(); i++) {
-                if (i > 0) {
-                    sb.append(",");
-                }
-                sb.append(entry.getValue().get(i).getId());
-            }
-            sb.append("}");
-        }
-        sb.append("}");
-        return sb.toString();
+    /**
+     * Sets the exchange of individuals with other simulations, called at regular simulation times.
+     * 
+     * @param migration The migration to perform.
+     * @param migrationInterval The simulation time between two migrations.
+     */
+    public void setMigration(Migration migration, double migrationInterval) {
+        this.migration = migration;
+        this.migrationInterval = migrationInterval;
     }
 
     /**
-     * Updates the best individual if the current best individual has a higher comfort level.
+     * Sets the comfort at which the simulation stops early, 1 by default.
+     * 
+     * @param targetComfort The target comfort.
      */
-    private void updateBestIndividual() {
-        Individual currentBest = population.getBestIndividual();
-        if (currentBest.getComfort() > bestIndividual.getComfort()) {
-            bestIndividual = currentBest.deepCopy();
-        }
+    public void setTargetComfort(double targetComfort) {
+        this.targetComfort = targetComfort;
     }
+
     /**
-     * Updates the candidate distributions by selecting the top 6 unique individuals from the population's candidate distributions.
+     * Sets a proven lower bound on the policing time, at which the best individual is optimal
+     * and the simulation stops early.
+     *
+     * @param lowerBound The lower bound, or 0 if none is known.
      */
-    private void updateCandidateDistributions() {
-        List<Individual> newCandidates = population.getCandidateDistributions(Math.min(6, population.getIndividuals().size() - 1))
-                                                    .stream()
-                                                    .map(Individual::deepCopy)
-                                                    .collect(Collectors.toList());
-    
-        for (Individual individual : candidateDistributions) {
-            newCandidates.add(individual.deepCopy());
-        }
-    
-        newCandidates.sort(Comparator.comparingDouble(Individual::getComfort).reversed());
-        
-        Set<Map<Patrol, List<PlanetarySystem>>> seenAllocations = new HashSet<>();
-        candidateDistributions = newCandidates.stream()
-                                              .filter(individual -> seenAllocations.add(individual.getAllocation()))
-                                              .limit(6)
-                                              .map(Individual::deepCopy)
-                                              .collect(Collectors.toList());
+    public void setLowerBound(int lowerBound) {
+        this.lowerBound = lowerBound;
     }
+
     /**
-     * Gets the next individual based on their time.
+     * Checks whether the best individual found so far has reached the target comfort or the lower bound.
      * 
-     * @return The next individual.
+     * @return True if the target comfort has been reached or the best individual is optimal.
      */
-    private Individual getNextIndividual(){
-        List<Individual> individualsByTime = new ArrayList<>(population.getIndividuals());
-        individualsByTime.sort(Comparator.comparingDouble(Individual::getTime));
-        return individualsByTime.get(0);
+    public boolean hasReachedTarget() {
+        Individual best = population.getElite().getBest();
+        return best != null && (best.getComfort() >= targetComfort || best.getPolicingTime() <= lowerBound);
     }
-    
+
+    /**
+     * Asks the simulation to stop after the current event. Can be called from any thread.
+     */
+    public void requestStop() {
+        stopRequested = true;
+    }
+
+    /**
+     * Sets the metrics of the run. Without metrics the run is not instrumented.
+     *
+     * @param metrics The metrics, or null.
+     */
+    public void setMetrics(SimulationMetrics metrics) {
+        this.metrics = metrics;
+        population.setMetrics(metrics);
+    }
+
+    /**
+     * Returns the metrics of the run.
+     *
+     * @return The metrics, or null if the run is not instrumented.
+     */
+    public SimulationMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Sets the share of the initial population built by constructive heuristics instead of at random.
+     *
+     * @param warmStart The share, between 0 and 1.
+     */
+    public void setWarmStart(double warmStart) {
+        this.warmStart = warmStart;
+    }
+
+    /**
+     * Sets the checkpointer that periodically saves the state of the run.
+     *
+     * @param checkpointer The checkpointer, or null to disable checkpoints.
+     */
+    public void setCheckpointer(Checkpointer checkpointer) {
+        this.checkpointer = checkpointer;
+    }
+
+    /**
+     * Gets the generator of the run.
+     *
+     * @return The random generator.
+     */
+    RandomGenerator getRandom() {
+        return random;
+    }
+
+    /**
+     * Gets the current simulation time.
+     *
+     * @return The current time.
+     */
+    double getCurrentTime() {
+        return currentTime;
+    }
+
+    /**
+     * Gets the number of realized events.
+     *
+     * @return The number of events.
+     */
+    int getEvents() {
+        return events;
+    }
+
+    /**
+     * Gets the number of epidemics.
+     *
+     * @return The number of epidemics.
+     */
+    int getEpidemics() {
+        return epidemics;
+    }
+
+    /**
+     * Gets the number of the next periodic observation.
+     *
+     * @return The observation number.
+     */
+    int getObservationNumber() {
+        return observation_number;
+    }
+
+    /**
+     * Gets the time of the next migration.
+     *
+     * @return The time of the next migration.
+     */
+    double getNextMigration() {
+        return nextMigration;
+    }
+
+    /**
+     * Restores the progress counters of the event loop from a checkpoint.
+     *
+     * @param currentTime The current time.
+     * @param events The number of realized events.
+     * @param epidemics The number of epidemics.
+     * @param observation_number The number of the next periodic observation.
+     * @param nextMigration The time of the next migration.
+     */
+    void restoreProgress(double currentTime, int events, int epidemics, int observation_number, double nextMigration) {
+        this.currentTime = currentTime;
+        this.events = events;
+        this.epidemics = epidemics;
+        this.observation_number = observation_number;
+        this.nextMigration = nextMigration;
+    }
+
+    /**
+     * Hashes the parameters of the run, which a checkpoint must have been written with: the instance
+     * parameters and the options that change the course of the run, namely the local search and the
+     * lower bound at which it stops.
+     *
+     * @return The hash of the parameters.
+     */
+    long hashParameters() {
+        LocalSearch localSearch = eventFactory.getLocalSearch();
+        return Objects.hash(tau, initialPopulation, population.getMaxPopulation(), deathRate, mutationRate, reproductionRate,
+                            patrols.size(), systems.size(), lowerBound,
+                            localSearch == null ? 0 : localSearch.getBudget(), localSearch == null ? 1.0 : localSearch.getRate());
+    }
+
     /**
      * Returns the population.
      * 
@@ -313,6 +476,24 @@ public class Main {
     public List<PlanetarySystem> getSystems() {
         return systems;
     }
+    /**
+     * Returns the time required by each patrol to pacify each system.
+     * 
+     * @return The cost matrix.
+     */
+    public CostMatrix getCosts() {
+        return costs;
+    }
+
+    /**
+     * Returns the factory that draws and executes the events.
+     * 
+     * @return The event factory.
+     */
+    public EventFactory getEventFactory() {
+        return eventFactory;
+    }
+
     /**
      * Returns the minimum time.
      * 
@@ -321,9 +502,14 @@ public class Main {
     public double getTmin() {
         return t_min;
     }
-    public static void main(String[] args) {
-        Parser parser = Parser.getInstance(args);
-
+    /**
+     * Creates independent simulations of the instance read by the parser, each with its own random stream.
+     *
+     * @param parser The parser holding the instance and options.
+     * @param count The number of simulations.
+     * @return The simulations.
+     */
+    public static List<Main> createSimulations(Parser parser, int count) {
         int n = parser.getN(); // Number of patrols
         int m = parser.getM(); // Number of systems
         int tau = parser.getTau(); // Final instant of evolution (> 0);
@@ -332,25 +518,146 @@ public class Main {
         double mu = parser.getMu(); // Mutation rate
         double rho = parser.getRho(); // Reproduction rate
         double delta = parser.getDelta(); // Comfort threshold
-        int[][] C = parser.getC(); // Time required by each patrol to pacify each system
+        CostMatrix C = parser.getC(); // Time required by each patrol to pacify each system
         
         List<Patrol> patrols = new ArrayList<>(n);
-        for (int i = 0; i < parser.getN(); i++) {
+        for (int i = 0; i < n; i++) {
             patrols.add(new Patrol(i));
         }
 
         List<PlanetarySystem> systems = new ArrayList<>(m);
         for (int i = 0; i < m; i++) {
-            int[] patrol_times = new int[n];
-            for (int j = 0; j < n; j++) {
-                patrol_times[j] = C[j][i];
+            systems.add(new PlanetarySystem(i, C));
+        }
+
+        int lowerBound = parser.isLowerBound() ? LowerBound.compute(C) : 0;
+        RandomStreams streams = new RandomStreams(parser.getSeed());
+        List<Main> runs = new ArrayList<>(count);
+        for (int run = 0; run < count; run++) {
+            Main algorithm = new Main(patrols, systems, C, tau, nu, nuMax, mu, rho, delta, streams.forRun(run));
+            algorithm.getEventFactory().setSampler(parser.getSampler());
+            algorithm.setMetrics(new SimulationMetrics(run));
+            algorithm.setWarmStart(parser.getWarmStart());
+            algorithm.setLowerBound(lowerBound);
+            if (parser.getLocalSearchBudget() > 0) {
+                LocalSearch localSearch = new LocalSearch(C, parser.getLocalSearchBudget(), parser.getLocalSearchRate());
+                algorithm.getEventFactory().setLocalSearch(localSearch);
+                algorithm.getMetrics().setLocalSearch(localSearch);
+            }
+            if (parser.getFitnessCache() > 0) {
+                FitnessCache cache = new FitnessCache(parser.getFitnessCache());
+                algorithm.getEventFactory().setFitnessCache(cache);
+                algorithm.getMetrics().setFitnessCache(cache);
+            }
+            runs.add(algorithm);
+        }
+        return runs;
+    }
+
+    /**
+     * Runs a single simulation, resuming it from a checkpoint and saving checkpoints if the options ask for it.
+     *
+     * @param run The simulation.
+     * @param parser The parser holding the options.
+     */
+    private static void runSingle(Main run, Parser parser) {
+        Checkpointer checkpointer = null;
+        try {
+            if (parser.getCheckpointFile() != null) {
+                checkpointer = new Checkpointer(parser.getCheckpointFile(), parser.getCheckpointInterval());
+                run.setCheckpointer(checkpointer);
+            }
+            if (parser.getResumeFile() != null) {
+                run.resume(parser.getResumeFile());
+            } else {
+                run.run();
             }
+            if (checkpointer != null) {
+                checkpointer.close();
+            }
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("Checkpoint failed: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Solves the instance with the exact solver and writes the optimal allocation as a single observation.
+     *
+     * @param parser The parser holding the instance and options.
+     * @param sink The receiver of the observation.
+     * @return False if the node limit of the AUTO mode was reached before the optimum was proven.
+     */
+    private static boolean solveExact(Parser parser, Consumer<Observation> sink) {
+        CostMatrix C = parser.getC();
+        long nodeLimit = parser.getSolver() == ExactSolver.Mode.AUTO ? ExactSolver.AUTO_NODE_LIMIT : 0;
+        ExactSolver solver = new ExactSolver(C, nodeLimit);
+        int[] genome = solver.solve(parser.getThreads());
+        if (genome == null) {
+            System.err.println("Exact search stopped after " + solver.getNodes() + " nodes, running the evolutionary algorithm");
+            return false;
+        }
+        Individual best = new Individual(genome, C, calculateTmin(C));
+        sink.accept(new Observation(1, 0, 0, 0, 0, best, List.of(best), best.calculatePolicingTime()));
+        return true;
+    }
+
+    /**
+     * Solves the instance read by the parser with the solver, parallelism and checkpoints its options ask for.
+     *
+     * @param parser The parser holding the instance and options.
+     * @param sink The receiver of the observations.
+     * @return EXACT if the exact solver proved the optimum, EVOLUTION if the evolutionary algorithm ran.
+     */
+    public static ExactSolver.Mode solve(Parser parser, Consumer<Observation> sink) {
+        boolean checkpointed = parser.getCheckpointFile() != null || parser.getResumeFile() != null;
+        if (!checkpointed && ExactSolver.isChosen(parser.getSolver(), parser.getC()) && solveExact(parser, sink)) {
+            return ExactSolver.Mode.EXACT;
+        }
 
-            systems.add(new PlanetarySystem(i, patrol_times));
+        int simulations = parser.getIslands() > 1 ? parser.getIslands() : parser.getRuns();
+        List<Main> runs = createSimulations(parser, simulations);
 
+        MetricsReporter reporter = null;
+        if (parser.getMetricsInterval() > 0) {
+            List<SimulationMetrics> metrics = new ArrayList<>();
+            runs.forEach(run -> metrics.add(run.getMetrics()));
+            reporter = new MetricsReporter(metrics, parser.getMetricsInterval(), System.err);
         }
+        if (parser.getIslands() > 1) {
+            new IslandModel(runs, parser.getTopology(), parser.getMigrants(), parser.getMigrationInterval()).run(sink);
+        } else if (runs.size() == 1) {
+            runs.get(0).setObservationListener(sink);
+            runSingle(runs.get(0), parser);
+        } else {
+            new MultiStart(runs).run(parser.getThreads(), sink);
+        }
+        if (reporter != null) {
+            reporter.close();
+        }
+        return ExactSolver.Mode.EVOLUTION;
+    }
 
-        Main algorithm = Main.getInstance(patrols, systems, tau, nu, nuMax, mu, rho, delta);
-        algorithm.run();
+    public static void main(String[] args) {
+        Parser parser;
+        try {
+            parser = new Parser(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+            return;
+        }
+
+        boolean checkpointed = parser.getCheckpointFile() != null || parser.getResumeFile() != null;
+        if (checkpointed && (parser.getIslands() > 1 || parser.getRuns() > 1)) {
+            System.err.println("Checkpoints are only supported for a single run");
+            System.exit(1);
+        }
+        try (ObservationSink sink = ObservationSink.open(parser.getOutputFormat(), parser.getOutputFile(), parser.getOutputQueue())) {
+            solve(parser, sink);
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("Cannot write observations: " + e.getMessage());
+            System.exit(1);
+        }
     }
 }
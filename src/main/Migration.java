@@ -0,0 +1,16 @@
+package src.main;
+
+/**
+ * Exchange of individuals between a simulation and other simulations running alongside it.
+ */
+@FunctionalInterface
+public interface Migration {
+
+    /**
+     * Sends and receives individuals. Called from the simulation's own thread.
+     *
+     * @param island The simulation that reached a migration time.
+     * @param currentTime The current time in that simulation.
+     */
+    void migrate(Main island, double currentTime);
+}
@@ -0,0 +1,127 @@
+package src.main;
+
+import src.service.EliteTracker;
+import src.service.Observation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Runs independent simulations of the same instance in parallel and merges their observations.
+ * <p>
+ * Each simulation has its own population, event factory and random stream, so the runs share
+ * nothing but the read-only instance. The k-th merged observation combines the k-th observation
+ * of every run, or its last one if the run stopped earlier: counts are summed, the present
+ * instant is the latest one, and the best and candidate distributions are the best distinct
+ * allocations over all runs.
+ */
+public class MultiStart {
+    private static final int ELITE_SIZE = 6; // 5 candidates + best
+
+    private List<Main> runs;
+    private boolean stopOnTarget = false;
+
+    /**
+     * Constructs a MultiStart over the given simulations.
+     *
+     * @param runs The simulations to run, each with its own random stream.
+     */
+    public MultiStart(List<Main> runs) {
+        this.runs = runs;
+    }
+
+    /**
+     * Sets whether all simulations stop as soon as one of them reaches its target comfort.
+     *
+     * @param stopOnTarget True to stop all simulations at the first one that reaches the target.
+     */
+    public void setStopOnTarget(boolean stopOnTarget) {
+        this.stopOnTarget = stopOnTarget;
+    }
+
+    /**
+     * Runs all simulations and passes the merged observations to the sink.
+     *
+     * @param threads The maximum number of simulations running at the same time.
+     * @param sink The receiver of the merged observations.
+     */
+    public void run(int threads, Consumer<Observation> sink) {
+        List<List<Observation>> observations = runAll(threads);
+        int count = 0;
+        for (List<Observation> runObservations : observations) {
+            count = Math.max(count, runObservations.size());
+        }
+        for (int i = 0; i < count; i++) {
+            sink.accept(merge(i, observations));
+        }
+    }
+
+    /**
+     * Runs all simulations on a pool of worker threads and collects their observations.
+     *
+     * @param threads The number of worker threads.
+     * @return The observations of each run, in run order.
+     */
+    public List<List<Observation>> runAll(int threads) {
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, Math.min(threads, runs.size())));
+        try {
+            List<Future<List<Observation>>> futures = new ArrayList<>(runs.size());
+            for (Main main : runs) {
+                futures.add(pool.submit(() -> {
+                    List<Observation> runObservations = new ArrayList<>();
+                    main.setObservationListener(runObservations::add);
+                    main.run();
+                    if (stopOnTarget && main.hasReachedTarget()) {
+                        runs.forEach(Main::requestStop);
+                    }
+                    return runObservations;
+                }));
+            }
+            List<List<Observation>> observations = new ArrayList<>(runs.size());
+            for (Future<List<Observation>> future : futures) {
+                observations.add(future.get());
+            }
+            return observations;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the simulations", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A simulation failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Merges the observations of all runs at the given position.
+     *
+     * @param index The position of the observation, starting at 0.
+     * @param observations The observations of each run.
+     * @return The merged observation.
+     */
+    private Observation merge(int index, List<List<Observation>> observations) {
+        EliteTracker elite = new EliteTracker(ELITE_SIZE);
+        double time = 0;
+        long events = 0;
+        int populationSize = 0;
+        int epidemics = 0;
+        int lowerBound = 0;
+        for (List<Observation> runObservations : observations) {
+            if (runObservations.isEmpty()) {
+                continue;
+            }
+            Observation observation = runObservations.get(Math.min(index, runObservations.size() - 1));
+            time = Math.max(time, observation.getTime());
+            events += observation.getEvents();
+            populationSize += observation.getPopulationSize();
+            epidemics += observation.getEpidemics();
+            lowerBound = Math.max(lowerBound, observation.getLowerBound());
+            observation.getCandidates().forEach(elite::offer);
+        }
+        return new Observation(index + 1, time, events, populationSize, epidemics, elite.getBest(), elite.getCandidates(), lowerBound);
+    }
+}
@@ -0,0 +1,31 @@
+package src.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event for one epidemic.
+ */
+@Name("src.Epidemic")
+@Label("Epidemic")
+@Category("Patrol Simulation")
+@StackTrace(false)
+@Description("Culling of the population when it reaches its maximum size")
+class EpidemicRecord extends jdk.jfr.Event {
+    @Label("Run")
+    int run;
+
+    @Label("Execution Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long executionTime;
+
+    @Label("Population Before")
+    int populationBefore;
+
+    @Label("Survivors")
+    int survivors;
+}
@@ -0,0 +1,116 @@
+package src.metrics;
+
+/**
+ * Allocation-free histogram of durations in nanoseconds, with the log-linear buckets of
+ * HdrHistogram: every power of two is split into 16 linear sub-buckets, so any recorded value
+ * is known within 6.25% whatever its magnitude, in a fixed array of under 1000 counters.
+ * <p>
+ * Recording is meant for a single thread. Readers on other threads see an approximate snapshot.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+    private final long[] counts = new long[(64 - SUB_BITS + 1) * SUB_BUCKETS];
+    private long count;
+    private long sum;
+    private long max;
+
+    /**
+     * Records a duration.
+     *
+     * @param nanos The duration in nanoseconds; negative values count as 0.
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts[bucketOf(value)]++;
+        count++;
+        sum += value;
+        if (value > max) {
+            max = value;
+        }
+    }
+
+    /**
+     * Gets the number of recorded durations.
+     *
+     * @return The count.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the sum of the recorded durations.
+     *
+     * @return The total in nanoseconds.
+     */
+    public long getSum() {
+        return sum;
+    }
+
+    /**
+     * Gets the mean of the recorded durations.
+     *
+     * @return The mean in nanoseconds, or 0 if nothing was recorded.
+     */
+    public double getMean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * Gets the largest recorded duration.
+     *
+     * @return The maximum in nanoseconds.
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * Gets the duration below which the given fraction of the recorded durations falls.
+     *
+     * @param quantile The fraction, between 0 and 1.
+     * @return The upper bound of the bucket holding the quantile, in nanoseconds, or 0 if nothing was recorded.
+     */
+    public long getValueAtQuantile(double quantile) {
+        long rank = (long) Math.ceil(quantile * count);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank && seen > 0) {
+                return Math.min(upperBoundOf(i), max);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Finds the bucket of a value.
+     *
+     * @param value The non-negative value.
+     * @return The bucket index.
+     */
+    private static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) - SUB_BUCKETS);
+    }
+
+    /**
+     * Gets the largest value of a bucket.
+     *
+     * @param bucket The bucket index.
+     * @return The upper bound of the bucket.
+     */
+    private static long upperBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long sub = SUB_BUCKETS + bucket % SUB_BUCKETS;
+        return ((sub + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,59 @@
+package src.metrics;
+
+import java.io.PrintStream;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prints the metrics of the runs at a fixed wall-clock interval from a background thread, and once
+ * more when closed.
+ */
+public class MetricsReporter implements AutoCloseable {
+    private final List<SimulationMetrics> metrics;
+    private final PrintStream out;
+    private final ScheduledExecutorService timer;
+
+    /**
+     * Constructs a MetricsReporter and starts its timer.
+     *
+     * @param metrics The metrics of the runs.
+     * @param intervalSeconds The time between two reports.
+     * @param out The destination of the reports.
+     */
+    public MetricsReporter(List<SimulationMetrics> metrics, double intervalSeconds, PrintStream out) {
+        this.metrics = metrics;
+        this.out = out;
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1, (long) (intervalSeconds * 1e3));
+        timer.scheduleAtFixedRate(this::report, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Prints one line per run.
+     */
+    private void report() {
+        for (SimulationMetrics run : metrics) {
+            out.println(run.format());
+        }
+    }
+
+    /**
+     * Stops the timer and prints the final metrics.
+     */
+    @Override
+    public void close() {
+        timer.shutdownNow();
+        try {
+            timer.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        report();
+    }
+}
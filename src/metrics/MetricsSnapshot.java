@@ -0,0 +1,60 @@
+package src.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Period;
+import jdk.jfr.Timespan;
+
+/**
+ * Periodic JFR event summarizing the metrics of a run.
+ */
+@Name("src.SimulationMetrics")
+@Label("Simulation Metrics")
+@Category("Patrol Simulation")
+@StackTrace(false)
+@Description("Periodic summary of the metrics of a run")
+@Period("1 s")
+class MetricsSnapshot extends jdk.jfr.Event {
+    @Label("Run")
+    int run;
+
+    @Label("Simulation Time")
+    double simulationTime;
+
+    @Label("Events")
+    long events;
+
+    @Label("Population Size")
+    int populationSize;
+
+    @Label("Epidemics")
+    long epidemics;
+
+    @Label("Mutation p99")
+    @Timespan(Timespan.NANOSECONDS)
+    long mutationP99;
+
+    @Label("Reproduction p99")
+    @Timespan(Timespan.NANOSECONDS)
+    long reproductionP99;
+
+    @Label("Death p99")
+    @Timespan(Timespan.NANOSECONDS)
+    long deathP99;
+
+    @Label("Epidemic Mean")
+    @Timespan(Timespan.NANOSECONDS)
+    long epidemicMean;
+
+    @Label("Scheduling Share")
+    double schedulingShare;
+
+    @Label("Elite Share")
+    double eliteShare;
+
+    @Label("Fitness Cache Hit Rate")
+    double fitnessCacheHitRate;
+}
@@ -0,0 +1,31 @@
+package src.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event for one sampled simulation event.
+ */
+@Name("src.SimulationEvent")
+@Label("Simulation Event")
+@Category("Patrol Simulation")
+@StackTrace(false)
+@Description("Execution of a sampled simulation event")
+class SimulationEventSample extends jdk.jfr.Event {
+    @Label("Run")
+    int run;
+
+    @Label("Type")
+    String type;
+
+    @Label("Execution Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long executionTime;
+
+    @Label("Population Size")
+    int populationSize;
+}
@@ -0,0 +1,318 @@
+package src.metrics;
+
+import jdk.jfr.FlightRecorder;
+import src.service.EventType;
+import src.service.FitnessCache;
+import src.service.LocalSearch;
+
+/**
+ * Runtime metrics of one run: event counts and rates, latency histograms per event type,
+ * epidemic frequency and cost, population size, and the time spent scheduling events and
+ * maintaining the best candidates.
+ * <p>
+ * Every event is counted, but only one in {@value #SAMPLE_PERIOD} is timed, so that the
+ * instrumentation costs a counter update on most events. Scheduling and elite updates are timed
+ * inside sampled events only, which makes their totals comparable to the sampled event time.
+ * Sampled events and every epidemic are also emitted as JFR events, and a snapshot of the metrics
+ * is emitted every second while a flight recording is running.
+ */
+public class SimulationMetrics {
+    public static final int SAMPLE_PERIOD = 16;
+    private static final EventType[] TYPES = EventType.values();
+
+    private final int run;
+    private final long[] eventCounts = new long[TYPES.length];
+    private final LatencyHistogram[] eventLatency = new LatencyHistogram[TYPES.length];
+    private final LatencyHistogram epidemicLatency = new LatencyHistogram();
+    private final LatencyHistogram schedulingLatency = new LatencyHistogram();
+    private final LatencyHistogram eliteLatency = new LatencyHistogram();
+    private final Runnable snapshotHook = this::emitSnapshot;
+    private long epidemicCasualties;
+    private int populationSize;
+    private double simulationTime;
+    private long startNanos;
+    private long endNanos;
+    private int countdown = SAMPLE_PERIOD;
+    private boolean sampling;
+    private FitnessCache fitnessCache;
+    private LocalSearch localSearch;
+
+    /**
+     * Constructs an empty SimulationMetrics.
+     *
+     * @param run The index of the run, used to tell runs apart in the reports.
+     */
+    public SimulationMetrics(int run) {
+        this.run = run;
+        for (int i = 0; i < TYPES.length; i++) {
+            eventLatency[i] = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * Marks the start of the run and registers the periodic JFR snapshot.
+     */
+    public void start() {
+        startNanos = System.nanoTime();
+        endNanos = 0;
+        FlightRecorder.addPeriodicEvent(MetricsSnapshot.class, snapshotHook);
+    }
+
+    /**
+     * Marks the end of the run and unregisters the periodic JFR snapshot.
+     */
+    public void stop() {
+        endNanos = System.nanoTime();
+        FlightRecorder.removePeriodicEvent(snapshotHook);
+    }
+
+    /**
+     * Called before an event is executed. Decides whether the event is sampled.
+     *
+     * @return The start time of a sampled event, or 0 if it is not sampled.
+     */
+    public long beginEvent() {
+        if (--countdown > 0) {
+            return 0;
+        }
+        countdown = SAMPLE_PERIOD;
+        sampling = true;
+        return System.nanoTime();
+    }
+
+    /**
+     * Called after an event is executed.
+     *
+     * @param type The type of the event.
+     * @param start The value returned by beginEvent.
+     * @param populationSize The population size after the event.
+     * @param simulationTime The simulation time of the event.
+     */
+    public void endEvent(EventType type, long start, int populationSize, double simulationTime) {
+        eventCounts[type.ordinal()]++;
+        this.populationSize = populationSize;
+        this.simulationTime = simulationTime;
+        if (sampling) {
+            sampling = false;
+            long duration = System.nanoTime() - start;
+            eventLatency[type.ordinal()].record(duration);
+            SimulationEventSample sample = new SimulationEventSample();
+            if (sample.shouldCommit()) {
+                sample.run = run;
+                sample.type = type.name();
+                sample.executionTime = duration;
+                sample.populationSize = populationSize;
+                sample.commit();
+            }
+        }
+    }
+
+    /**
+     * Checks whether the current event is sampled, so that its parts should be timed.
+     *
+     * @return True inside a sampled event.
+     */
+    public boolean isSampling() {
+        return sampling;
+    }
+
+    /**
+     * Records the time spent computing and scheduling the next event of an individual.
+     *
+     * @param nanos The duration in nanoseconds.
+     */
+    public void recordScheduling(long nanos) {
+        schedulingLatency.record(nanos);
+    }
+
+    /**
+     * Records the time spent offering an individual to the best candidates.
+     *
+     * @param nanos The duration in nanoseconds.
+     */
+    public void recordElite(long nanos) {
+        eliteLatency.record(nanos);
+    }
+
+    /**
+     * Records an epidemic.
+     *
+     * @param nanos The duration in nanoseconds.
+     * @param populationBefore The population size before the epidemic.
+     * @param survivors The population size after the epidemic.
+     */
+    public void recordEpidemic(long nanos, int populationBefore, int survivors) {
+        epidemicLatency.record(nanos);
+        epidemicCasualties += populationBefore - survivors;
+        populationSize = survivors;
+        EpidemicRecord record = new EpidemicRecord();
+        if (record.shouldCommit()) {
+            record.run = run;
+            record.executionTime = nanos;
+            record.populationBefore = populationBefore;
+            record.survivors = survivors;
+            record.commit();
+        }
+    }
+
+    /**
+     * Gets the number of executed events of a type.
+     *
+     * @param type The event type.
+     * @return The count.
+     */
+    public long getEventCount(EventType type) {
+        return eventCounts[type.ordinal()];
+    }
+
+    /**
+     * Gets the number of executed events.
+     *
+     * @return The count.
+     */
+    public long getEvents() {
+        long events = 0;
+        for (long count : eventCounts) {
+            events += count;
+        }
+        return events;
+    }
+
+    /**
+     * Gets the latency histogram of the sampled events of a type.
+     *
+     * @param type The event type.
+     * @return The histogram.
+     */
+    public LatencyHistogram getEventLatency(EventType type) {
+        return eventLatency[type.ordinal()];
+    }
+
+    /**
+     * Gets the latency histogram of the epidemics.
+     *
+     * @return The histogram.
+     */
+    public LatencyHistogram getEpidemicLatency() {
+        return epidemicLatency;
+    }
+
+    /**
+     * Gets the wall-clock time since the start of the run, or its duration once stopped.
+     *
+     * @return The elapsed time in nanoseconds.
+     */
+    public long getElapsedNanos() {
+        return (endNanos != 0 ? endNanos : System.nanoTime()) - startNanos;
+    }
+
+    /**
+     * Gets the share of the sampled event time spent scheduling events.
+     *
+     * @return The share, between 0 and 1.
+     */
+    public double getSchedulingShare() {
+        return share(schedulingLatency);
+    }
+
+    /**
+     * Gets the share of the sampled event time spent maintaining the best candidates.
+     *
+     * @return The share, between 0 and 1.
+     */
+    public double getEliteShare() {
+        return share(eliteLatency);
+    }
+
+    /**
+     * Sets the fitness cache whose counters are reported with the metrics.
+     *
+     * @param fitnessCache The fitness cache of the run, or null.
+     */
+    public void setFitnessCache(FitnessCache fitnessCache) {
+        this.fitnessCache = fitnessCache;
+    }
+
+    /**
+     * Gets the fitness cache whose counters are reported with the metrics.
+     *
+     * @return The fitness cache of the run, or null.
+     */
+    public FitnessCache getFitnessCache() {
+        return fitnessCache;
+    }
+
+    /**
+     * Sets the local search whose counters are reported with the metrics.
+     *
+     * @param localSearch The local search of the run, or null.
+     */
+    public void setLocalSearch(LocalSearch localSearch) {
+        this.localSearch = localSearch;
+    }
+
+    /**
+     * Formats the metrics as one line of text.
+     *
+     * @return The summary.
+     */
+    public String format() {
+        long events = getEvents();
+        double seconds = getElapsedNanos() / 1e9;
+        long epidemics = epidemicLatency.getCount();
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("[metrics run %d] time=%.3f events=%d (%.0f/s) population=%d epidemics=%d (%.2f per 1000 events, mean %.1f us, %d culled)",
+                                run, simulationTime, events, seconds > 0 ? events / seconds : 0, populationSize, epidemics,
+                                events > 0 ? 1000.0 * epidemics / events : 0, epidemicLatency.getMean() / 1e3, epidemicCasualties));
+        for (EventType type : TYPES) {
+            LatencyHistogram histogram = eventLatency[type.ordinal()];
+            sb.append(String.format(" %s=%d p50=%dns p99=%dns", type.name().toLowerCase(), eventCounts[type.ordinal()],
+                                    histogram.getValueAtQuantile(0.5), histogram.getValueAtQuantile(0.99)));
+        }
+        sb.append(String.format(" scheduling=%.0f%% elite=%.0f%%", 100 * getSchedulingShare(), 100 * getEliteShare()));
+        if (localSearch != null) {
+            sb.append(String.format(" local-search applied=%d improved=%d", localSearch.getApplied(), localSearch.getImproved()));
+        }
+        if (fitnessCache != null) {
+            sb.append(String.format(" fitness-cache hits=%d misses=%d (%.1f%% hit) evictions=%d", fitnessCache.getHits(),
+                                    fitnessCache.getMisses(), 100 * fitnessCache.getHitRate(), fitnessCache.getEvictions()));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Computes the share of the sampled event time spent in a part of the events.
+     *
+     * @param part The histogram of the part.
+     * @return The share, between 0 and 1.
+     */
+    private double share(LatencyHistogram part) {
+        long total = 0;
+        for (LatencyHistogram histogram : eventLatency) {
+            total += histogram.getSum();
+        }
+        return total == 0 ? 0 : Math.min(1, (double) part.getSum() / total);
+    }
+
+    /**
+     * Emits the periodic JFR snapshot.
+     */
+    private void emitSnapshot() {
+        MetricsSnapshot snapshot = new MetricsSnapshot();
+        snapshot.run = run;
+        snapshot.simulationTime = simulationTime;
+        snapshot.events = getEvents();
+        snapshot.populationSize = populationSize;
+        snapshot.epidemics = epidemicLatency.getCount();
+        snapshot.mutationP99 = getEventLatency(EventType.MUTATE).getValueAtQuantile(0.99);
+        snapshot.reproductionP99 = getEventLatency(EventType.REPRODUCE).getValueAtQuantile(0.99);
+        snapshot.deathP99 = getEventLatency(EventType.DEATH).getValueAtQuantile(0.99);
+        snapshot.epidemicMean = (long) epidemicLatency.getMean();
+        snapshot.schedulingShare = getSchedulingShare();
+        snapshot.eliteShare = getEliteShare();
+        if (fitnessCache != null) {
+            snapshot.fitnessCacheHitRate = fitnessCache.getHitRate();
+        }
+        snapshot.commit();
+    }
+}
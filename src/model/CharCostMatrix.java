@@ -0,0 +1,26 @@
+package src.model;
+
+/**
+ * Cost matrix backed by a char array, for times between 0 and 65535.
+ */
+public class CharCostMatrix extends CostMatrix {
+    private final char[] values;
+
+    /**
+     * Constructs a CharCostMatrix over the given values.
+     *
+     * @param n The number of patrols.
+     * @param m The number of planetary systems.
+     * @param layout The memory layout of the values.
+     * @param values The n * m values in the given layout.
+     */
+    CharCostMatrix(int n, int m, Layout layout, char[] values) {
+        super(n, m, layout);
+        this.values = values;
+    }
+
+    @Override
+    public int get(int patrolId, int systemId) {
+        return values[index(patrolId, systemId)];
+    }
+}
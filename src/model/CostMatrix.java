@@ -0,0 +1,173 @@
+package src.model;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Time required by each patrol to pacify each planetary system, stored in one
+ * contiguous primitive array.
+ * <p>
+ * The matrix is read-only once built. Use a {@link Builder} to fill it; the
+ * builder keeps the values as 16-bit chars while they fit and widens to ints
+ * only when needed.
+ */
+public abstract class CostMatrix {
+
+    /**
+     * Order in which the values are laid out in memory.
+     */
+    public enum Layout {
+        /** One row of m systems per patrol, as in the input file. */
+        BY_PATROL,
+        /** One row of n patrols per system, so a system's costs are adjacent. */
+        BY_SYSTEM
+    }
+
+    private final int n;
+    private final int m;
+    private final Layout layout;
+
+    /**
+     * Constructs a CostMatrix with the given dimensions.
+     *
+     * @param n The number of patrols.
+     * @param m The number of planetary systems.
+     * @param layout The memory layout of the values.
+     */
+    protected CostMatrix(int n, int m, Layout layout) {
+        this.n = n;
+        this.m = m;
+        this.layout = layout;
+    }
+
+    /**
+     * Gets the time the patrol needs to pacify the system.
+     *
+     * @param patrolId The id of the patrol.
+     * @param systemId The id of the planetary system.
+     * @return The time required.
+     */
+    public abstract int get(int patrolId, int systemId);
+
+    /**
+     * Gets the number of patrols.
+     *
+     * @return The number of patrols.
+     */
+    public int getN() {
+        return n;
+    }
+
+    /**
+     * Gets the number of planetary systems.
+     *
+     * @return The number of planetary systems.
+     */
+    public int getM() {
+        return m;
+    }
+
+    /**
+     * Gets the memory layout of the values.
+     *
+     * @return The layout.
+     */
+    public Layout getLayout() {
+        return layout;
+    }
+
+    /**
+     * Wraps a buffer of little-endian values, such as a memory-mapped binary instance, without copying it.
+     *
+     * @param n The number of patrols.
+     * @param m The number of planetary systems.
+     * @param layout The memory layout of the values.
+     * @param values The n * m values in the given layout, from the buffer's position on.
+     * @param elementBytes The size of a value: 2 for unsigned chars, 4 for ints.
+     * @return The cost matrix.
+     */
+    public static CostMatrix wrap(int n, int m, Layout layout, ByteBuffer values, int elementBytes) {
+        if (elementBytes != 2 && elementBytes != 4) {
+            throw new IllegalArgumentException("Unsupported element size: " + elementBytes);
+        }
+        if (values.remaining() < (long) n * m * elementBytes) {
+            throw new IllegalArgumentException("Buffer too small for a " + n + " x " + m + " cost matrix");
+        }
+        return new MappedCostMatrix(n, m, layout, values, elementBytes == 4);
+    }
+
+    /**
+     * Computes the position of a value in the backing array.
+     *
+     * @param patrolId The id of the patrol.
+     * @param systemId The id of the planetary system.
+     * @return The array index.
+     */
+    protected final int index(int patrolId, int systemId) {
+        return layout == Layout.BY_SYSTEM ? systemId * n + patrolId : patrolId * m + systemId;
+    }
+
+    /**
+     * Builder that fills a cost matrix value by value and picks the smallest element type.
+     */
+    public static class Builder {
+        private final int n;
+        private final int m;
+        private final Layout layout;
+        private char[] chars;
+        private int[] ints;
+
+        /**
+         * Constructs a Builder for an n by m matrix.
+         *
+         * @param n The number of patrols.
+         * @param m The number of planetary systems.
+         * @param layout The memory layout of the values.
+         */
+        public Builder(int n, int m, Layout layout) {
+            if ((long) n * m > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Cost matrix too large: " + n + " x " + m);
+            }
+            this.n = n;
+            this.m = m;
+            this.layout = layout;
+            this.chars = new char[n * m];
+        }
+
+        /**
+         * Sets the time the patrol needs to pacify the system.
+         *
+         * @param patrolId The id of the patrol.
+         * @param systemId The id of the planetary system.
+         * @param value The time required.
+         * @return This builder.
+         */
+        public Builder set(int patrolId, int systemId, int value) {
+            int index = layout == Layout.BY_SYSTEM ? systemId * n + patrolId : patrolId * m + systemId;
+            if (ints == null && value >= Character.MIN_VALUE && value <= Character.MAX_VALUE) {
+                chars[index] = (char) value;
+                return this;
+            }
+            if (ints == null) {
+                ints = new int[chars.length];
+                for (int i = 0; i < chars.length; i++) {
+                    ints[i] = chars[i];
+                }
+                chars = null;
+            }
+            ints[index] = value;
+            return this;
+        }
+
+        /**
+         * Builds the matrix. The builder must not be used afterwards.
+         *
+         * @return The cost matrix.
+         */
+        public CostMatrix build() {
+            if (ints != null) {
+                return new IntCostMatrix(n, m, layout, ints);
+            }
+            return new CharCostMatrix(n, m, layout, chars);
+        }
+    }
+}
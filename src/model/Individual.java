@@ -1,57 +1,348 @@
 package src.model;
 
-import src.service.*;
+import src.service.EventType;
 import java.util.*;
 
 /**
  * Class representing an individual in the population.
  */
 public class Individual {
-    private Map<Patrol, List<PlanetarySystem>> allocation;
-    private Event event;
+    private int[] genome; // genome[s] is the id of the patrol assigned to system s
+    private int[] loads; // tournament tree: loads[n + p] is the time patrol p needs, loads[i] = max(loads[2i], loads[2i + 1]); null until needed if the policing time was given
+    private int[] counts; // counts[p] is the number of systems assigned to patrol p; null while loads is
+    private int[][] members; // members[p][0..counts[p]) are the systems assigned to patrol p, in no particular order; null while loads is
+    private int[] positions; // positions[s] is the index of system s in members[genome[s]]; null while loads is
+    private long fingerprint; // XOR of zobristKey(s, genome[s]) over all systems s
+    private CostMatrix costs;
+    private EventType eventType;
     private double time;
+    private int schedulerIndex = -1;
+    private int populationIndex = -1;
     private double comfort;
+    private double ratesComfort = Double.NaN; // comfort for which the event means below were computed
+    private double deathMean;
+    private double mutationMean;
+    private double reproductionMean;
+    private double totalEventRate;
     private double tmin;
     private int policing_time;
 
     /**
-     * Constructs an Individual with the given allocation and tmin.
+     * Constructs an Individual with the given genome and tmin.
      *
-     * @param allocation The allocation of planetary systems to patrols.
+     * @param genome The id of the patrol assigned to each planetary system, indexed by system id.
+     * @param costs The time required by each patrol to pacify each system.
      * @param tmin The minimum patrol time.
      */
-    public Individual(Map<Patrol, List<PlanetarySystem>> allocation, double tmin) {
-        this.allocation = allocation;
+    public Individual(int[] genome, CostMatrix costs, double tmin) {
+        this.genome = genome;
+        this.costs = costs;
         this.tmin = tmin;
+        for (int s = 0; s < genome.length; s++) {
+            fingerprint ^= zobristKey(s, genome[s]);
+        }
+        computeLoads();
         this.policing_time = calculatePolicingTime();
         this.comfort = calculateComfort();
     }
 
     /**
-     * Gets the allocation of planetary systems to patrols.
+     * Constructs an Individual whose fingerprint and policing time are already known, for instance
+     * from a FitnessCache. The patrol loads are only computed if a move or a load query needs them.
+     *
+     * @param genome The id of the patrol assigned to each planetary system, indexed by system id.
+     * @param costs The time required by each patrol to pacify each system.
+     * @param tmin The minimum patrol time.
+     * @param fingerprint The fingerprint of the genome.
+     * @param policing_time The policing time of the genome.
+     */
+    public Individual(int[] genome, CostMatrix costs, double tmin, long fingerprint, int policing_time) {
+        this.genome = genome;
+        this.costs = costs;
+        this.tmin = tmin;
+        this.fingerprint = fingerprint;
+        this.policing_time = policing_time;
+        this.comfort = calculateComfort();
+    }
+
+    /**
+     * Copy constructor for deep copy.
+     *
+     * @param other The Individual to copy.
+     */
+    private Individual(Individual other) {
+        this.genome = other.genome.clone();
+        this.loads = other.loads == null ? null : other.loads.clone();
+        this.counts = other.counts == null ? null : other.counts.clone();
+        if (other.members != null) {
+            this.members = new int[other.members.length][];
+            for (int p = 0; p < members.length; p++) {
+                this.members[p] = Arrays.copyOf(other.members[p], other.counts[p]);
+            }
+            this.positions = other.positions.clone();
+        }
+        this.fingerprint = other.fingerprint;
+        this.costs = other.costs;
+        this.tmin = other.tmin;
+        this.policing_time = other.policing_time;
+        this.comfort = other.comfort;
+    }
+
+    /**
+     * Gets the genome of the individual. The array is shared, not copied, and must only be
+     * changed through moveSystem.
+     *
+     * @return The id of the patrol assigned to each planetary system.
+     */
+    public int[] getGenome() {
+        return genome;
+    }
+
+    /**
+     * Builds the allocation of planetary systems to patrols described by the genome.
+     * Each patrol's systems are listed by increasing id.
      *
+     * @param patrols The list of patrols, indexed by id.
+     * @param systems The list of planetary systems, indexed by id.
      * @return The allocation map.
      */
-    public Map<Patrol, List<PlanetarySystem>> getAllocation() {
+    public Map<Patrol, List<PlanetarySystem>> getAllocation(List<Patrol> patrols, List<PlanetarySystem> systems) {
+        Map<Patrol, List<PlanetarySystem>> allocation = new HashMap<>();
+        for (int p = 0; p < patrols.size(); p++) {
+            allocation.put(patrols.get(p), new ArrayList<>(getSystemCount(p)));
+        }
+        for (int s = 0; s < genome.length; s++) {
+            allocation.get(patrols.get(genome[s])).add(systems.get(s));
+        }
         return allocation;
     }
 
     /**
-     * Gets the event associated with the individual.
+     * Checks whether this individual assigns every system to the same patrol as another one.
+     * Different fingerprints answer in O(1); the genomes are only compared when the fingerprints match.
+     *
+     * @param other The individual to compare with.
+     * @return True if both genomes are equal.
+     */
+    public boolean hasSameAllocation(Individual other) {
+        return fingerprint == other.fingerprint && Arrays.equals(genome, other.genome);
+    }
+
+    /**
+     * Gets the Zobrist fingerprint of the allocation: equal allocations have equal fingerprints,
+     * and different ones differ but with a probability of about 2^-64.
+     *
+     * @return The 64-bit fingerprint.
+     */
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Gets the Zobrist key of the assignment of a system to a patrol. The keys are derived by
+     * hashing the pair rather than drawn into a table, so they need no memory and are the same
+     * in every run.
+     *
+     * @param systemId The id of the system.
+     * @param patrolId The id of the patrol.
+     * @return The 64-bit key.
+     */
+    public static long zobristKey(int systemId, int patrolId) {
+        long z = (((long) systemId << 32) | patrolId) * 0x9e3779b97f4a7c15L;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Gets the number of patrols of the allocation.
      *
-     * @return The event.
+     * @return The number of patrols.
      */
-    public Event getEvent() {
-        return event;
+    public int getPatrolCount() {
+        return costs.getN();
     }
 
     /**
-     * Sets the event for the individual.
+     * Gets the number of systems assigned to a patrol.
      *
-     * @param event The event to set.
+     * @param patrolId The id of the patrol.
+     * @return The number of systems assigned to the patrol.
      */
-    public void setEvent(Event event) {
-        this.event = event;
+    public int getSystemCount(int patrolId) {
+        ensureLoads();
+        return counts[patrolId];
+    }
+
+    /**
+     * Gets the k-th system assigned to a patrol in O(1). The systems of a patrol are listed by
+     * increasing id when the loads are computed, then in the order left by the moves.
+     *
+     * @param patrolId The id of the patrol.
+     * @param k The rank of the system among the patrol's systems, starting at 0.
+     * @return The id of the system.
+     */
+    public int getSystemOfPatrol(int patrolId, int k) {
+        ensureLoads();
+        if (k >= counts[patrolId]) {
+            throw new IllegalArgumentException("Patrol " + patrolId + " has fewer than " + (k + 1) + " systems");
+        }
+        return members[patrolId][k];
+    }
+
+    /**
+     * Gets the rank of every system among the systems of its patrol, as used by getSystemOfPatrol.
+     * Together with the genome, it is the state that decides which system a random rank picks.
+     *
+     * @return The rank of each system, indexed by system id. The array is shared, not copied.
+     */
+    public int[] getSystemRanks() {
+        ensureLoads();
+        return positions;
+    }
+
+    /**
+     * Reorders the systems of every patrol, for instance to restore the ranks saved from another individual.
+     *
+     * @param ranks The rank of each system among the systems of its patrol, indexed by system id.
+     * @throws IllegalArgumentException If the ranks of a patrol are not a permutation of 0 to its number of systems.
+     */
+    public void setSystemRanks(int[] ranks) {
+        ensureLoads();
+        int n = counts.length;
+        for (int p = 0; p < n; p++) {
+            Arrays.fill(members[p], 0, counts[p], -1);
+        }
+        for (int s = 0; s < genome.length; s++) {
+            int p = genome[s];
+            int rank = ranks[s];
+            if (rank < 0 || rank >= counts[p] || members[p][rank] >= 0) {
+                throw new IllegalArgumentException("Invalid rank " + rank + " of system " + s);
+            }
+            members[p][rank] = s;
+            positions[s] = rank;
+        }
+    }
+
+    /**
+     * Gets the time a patrol needs to pacify the systems assigned to it.
+     *
+     * @param patrolId The id of the patrol.
+     * @return The load of the patrol.
+     */
+    public int getLoad(int patrolId) {
+        ensureLoads();
+        return loads[counts.length + patrolId];
+    }
+
+    /**
+     * Finds a patrol whose load is the policing time, by descending the tournament tree in O(log n).
+     *
+     * @return The id of a most loaded patrol.
+     */
+    public int getCriticalPatrol() {
+        ensureLoads();
+        int n = counts.length;
+        int i = 1;
+        while (i < n) {
+            i = loads[2 * i] == loads[i] ? 2 * i : 2 * i + 1;
+        }
+        return i - n;
+    }
+
+    /**
+     * Reassigns a system to another patrol, updating the patrol loads in O(log n), and the fingerprint
+     * and the systems of both patrols in O(1): the last system of the previous patrol takes the place
+     * of the moved one, which is appended to the new patrol. Policing time and comfort must be
+     * recalculated afterwards.
+     *
+     * @param systemId The id of the system to move.
+     * @param patrolId The id of the patrol that receives the system.
+     */
+    public void moveSystem(int systemId, int patrolId) {
+        ensureLoads();
+        int previous = genome[systemId];
+        updateLoad(previous, -costs.get(previous, systemId));
+        int last = members[previous][--counts[previous]];
+        members[previous][positions[systemId]] = last;
+        positions[last] = positions[systemId];
+        updateLoad(patrolId, costs.get(patrolId, systemId));
+        if (counts[patrolId] == members[patrolId].length) {
+            members[patrolId] = Arrays.copyOf(members[patrolId], Math.max(4, 2 * counts[patrolId]));
+        }
+        positions[systemId] = counts[patrolId];
+        members[patrolId][counts[patrolId]++] = systemId;
+        fingerprint ^= zobristKey(systemId, previous) ^ zobristKey(systemId, patrolId);
+        genome[systemId] = patrolId;
+    }
+
+    /**
+     * Computes the patrol loads, system counts and systems of each patrol if they were deferred.
+     */
+    private void ensureLoads() {
+        if (loads == null) {
+            computeLoads();
+        }
+    }
+
+    /**
+     * Computes the patrol loads, system counts and systems of each patrol from the genome, in O(n + m).
+     */
+    private void computeLoads() {
+        int n = costs.getN();
+        loads = new int[2 * n];
+        counts = new int[n];
+        for (int s = 0; s < genome.length; s++) {
+            int p = genome[s];
+            loads[n + p] += costs.get(p, s);
+            counts[p]++;
+        }
+        members = new int[n][];
+        for (int p = 0; p < n; p++) {
+            members[p] = new int[counts[p]];
+            counts[p] = 0;
+        }
+        positions = new int[genome.length];
+        for (int s = 0; s < genome.length; s++) {
+            int p = genome[s];
+            positions[s] = counts[p];
+            members[p][counts[p]++] = s;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            loads[i] = Math.max(loads[2 * i], loads[2 * i + 1]);
+        }
+    }
+
+    /**
+     * Adds a delta to the load of a patrol and updates the maxima on its path to the root.
+     *
+     * @param patrolId The id of the patrol.
+     * @param delta The change in load.
+     */
+    private void updateLoad(int patrolId, int delta) {
+        int i = counts.length + patrolId;
+        loads[i] += delta;
+        for (i >>= 1; i > 0; i >>= 1) {
+            loads[i] = Math.max(loads[2 * i], loads[2 * i + 1]);
+        }
+    }
+
+    /**
+     * Gets the type of the next event of the individual.
+     *
+     * @return The event type.
+     */
+    public EventType getEventType() {
+        return eventType;
+    }
+
+    /**
+     * Sets the type of the next event of the individual.
+     *
+     * @param eventType The event type to set.
+     */
+    public void setEventType(EventType eventType) {
+        this.eventType = eventType;
     }
 
     /**
@@ -72,6 +363,42 @@ public class Individual {
         this.time = time;
     }
 
+    /**
+     * Gets the position of the individual in the event scheduler.
+     *
+     * @return The scheduler index, or -1 if the individual is not scheduled.
+     */
+    public int getSchedulerIndex() {
+        return schedulerIndex;
+    }
+
+    /**
+     * Sets the position of the individual in the event scheduler.
+     *
+     * @param schedulerIndex The scheduler index, or -1 if the individual is not scheduled.
+     */
+    public void setSchedulerIndex(int schedulerIndex) {
+        this.schedulerIndex = schedulerIndex;
+    }
+
+    /**
+     * Gets the slot of the individual in its population.
+     *
+     * @return The population index, or -1 if the individual is not in a population.
+     */
+    public int getPopulationIndex() {
+        return populationIndex;
+    }
+
+    /**
+     * Sets the slot of the individual in its population.
+     *
+     * @param populationIndex The population index, or -1 if the individual is not in a population.
+     */
+    public void setPopulationIndex(int populationIndex) {
+        this.populationIndex = populationIndex;
+    }
+
     /**
      * Gets the policing time of the individual.
      *
@@ -108,21 +435,75 @@ public class Individual {
         this.comfort =  comfort;
     }
 
+    /**
+     * Gets the comfort for which the cached event means were computed.
+     *
+     * @return The comfort, or NaN if no means are cached.
+     */
+    public double getRatesComfort() {
+        return ratesComfort;
+    }
+
+    /**
+     * Caches the mean time to each event of the individual.
+     *
+     * @param comfort The comfort the means were computed for.
+     * @param deathMean The mean time to death.
+     * @param mutationMean The mean time to mutation.
+     * @param reproductionMean The mean time to reproduction.
+     */
+    public void setEventRates(double comfort, double deathMean, double mutationMean, double reproductionMean) {
+        this.ratesComfort = comfort;
+        this.deathMean = deathMean;
+        this.mutationMean = mutationMean;
+        this.reproductionMean = reproductionMean;
+        this.totalEventRate = 1 / deathMean + 1 / mutationMean + 1 / reproductionMean;
+    }
+
+    /**
+     * Gets the cached mean time to death.
+     *
+     * @return The mean time to death.
+     */
+    public double getDeathMean() {
+        return deathMean;
+    }
+
+    /**
+     * Gets the cached mean time to mutation.
+     *
+     * @return The mean time to mutation.
+     */
+    public double getMutationMean() {
+        return mutationMean;
+    }
+
+    /**
+     * Gets the cached mean time to reproduction.
+     *
+     * @return The mean time to reproduction.
+     */
+    public double getReproductionMean() {
+        return reproductionMean;
+    }
+
+    /**
+     * Gets the sum of the cached event rates, the inverse of the mean time to the next event.
+     *
+     * @return The total event rate.
+     */
+    public double getTotalEventRate() {
+        return totalEventRate;
+    }
+
     /**
      * Calculates the time it takes the individual to patrol the empire.
      *
      * @return The time to patrol the empire of the individual.
      */
     public int calculatePolicingTime() {
-        int tz = 0;
-        for (Patrol patrol : allocation.keySet()) {
-            int patrolTime = 0;
-            for (PlanetarySystem system : allocation.get(patrol)) {
-                patrolTime += system.getTimeForPatrol(patrol.getId());
-            }
-            tz = Math.max(tz, patrolTime);
-        }
-        return tz;
+        // The root of the tournament tree holds the maximum load; a single patrol is its own root
+        return loads == null ? policing_time : loads[1];
     }
 
     /**
@@ -131,15 +512,7 @@ public class Individual {
      * @return A deep copy of this individual.
      */
     public Individual deepCopy() {
-        Map<Patrol, List<PlanetarySystem>> allocationCopy = new HashMap<>();
-        for (Map.Entry<Patrol, List<PlanetarySystem>> patrol : allocation.entrySet()) {
-            Patrol patrolCopy = patrol.getKey();
-            List<PlanetarySystem> systemsCopy = new ArrayList<>(patrol.getValue());
-            allocationCopy.put(patrolCopy, systemsCopy);
-        }
-        Individual copy = new Individual(allocationCopy, tmin);
-
-        return copy;
+        return new Individual(this);
     }
 
 
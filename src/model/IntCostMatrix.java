@@ -0,0 +1,26 @@
+package src.model;
+
+/**
+ * Cost matrix backed by an int array.
+ */
+public class IntCostMatrix extends CostMatrix {
+    private final int[] values;
+
+    /**
+     * Constructs an IntCostMatrix over the given values.
+     *
+     * @param n The number of patrols.
+     * @param m The number of planetary systems.
+     * @param layout The memory layout of the values.
+     * @param values The n * m values in the given layout.
+     */
+    IntCostMatrix(int n, int m, Layout layout, int[] values) {
+        super(n, m, layout);
+        this.values = values;
+    }
+
+    @Override
+    public int get(int patrolId, int systemId) {
+        return values[index(patrolId, systemId)];
+    }
+}
@@ -0,0 +1,34 @@
+package src.model;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Cost matrix read in place from a little-endian byte buffer, typically a memory-mapped
+ * binary instance file, with 2-byte unsigned or 4-byte signed values.
+ */
+public class MappedCostMatrix extends CostMatrix {
+    private final ByteBuffer values;
+    private final boolean wide;
+
+    /**
+     * Constructs a MappedCostMatrix over the given buffer.
+     *
+     * @param n The number of patrols.
+     * @param m The number of planetary systems.
+     * @param layout The memory layout of the values.
+     * @param values The n * m values in the given layout, starting at position 0.
+     * @param wide True for 4-byte values, false for 2-byte values.
+     */
+    MappedCostMatrix(int n, int m, Layout layout, ByteBuffer values, boolean wide) {
+        super(n, m, layout);
+        this.values = values.slice().order(ByteOrder.LITTLE_ENDIAN);
+        this.wide = wide;
+    }
+
+    @Override
+    public int get(int patrolId, int systemId) {
+        int index = index(patrolId, systemId);
+        return wide ? values.getInt(index << 2) : values.getChar(index << 1);
+    }
+}
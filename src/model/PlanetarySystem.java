@@ -1,23 +1,21 @@
 package src.model;
 
-import java.util.Arrays;
-
 /**
  * Class representing a planetary system.
  */
 public class PlanetarySystem {
     private int id;
-    private int[] patrolTimes; // Time required by each patrol to pacify this system
+    private CostMatrix costs; // Time required by each patrol to pacify each system
 
     /**
-     * Constructs a PlanetarySystem with the given id and patrol times.
+     * Constructs a PlanetarySystem with the given id and cost matrix.
      *
      * @param id The id of the planetary system.
-     * @param patrolTimes The time required by each patrol to pacify this system.
+     * @param costs The time required by each patrol to pacify each system.
      */
-    public PlanetarySystem(int id, int[] patrolTimes) {
+    public PlanetarySystem(int id, CostMatrix costs) {
         this.id = id;
-        this.patrolTimes = patrolTimes;
+        this.costs = costs;
     }
 
     /**
@@ -27,7 +25,7 @@ public class PlanetarySystem {
      */
     public PlanetarySystem(PlanetarySystem other) {
         this.id = other.id;
-        this.patrolTimes = Arrays.copyOf(other.patrolTimes, other.patrolTimes.length);
+        this.costs = other.costs;
     }
 
     public int getId() {
@@ -35,7 +33,7 @@ public class PlanetarySystem {
     }
 
     public int getTimeForPatrol(int patrolId) {
-        return patrolTimes[patrolId];
+        return costs.get(patrolId, id);
     }
     
     /**
@@ -0,0 +1,104 @@
+package src.service;
+
+import src.model.Individual;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Bounded record of the best distinct allocations found during the simulation.
+ * <p>
+ * Holds snapshots of up to {@code capacity} individuals with pairwise different
+ * allocations, ordered by decreasing comfort. It is offered an individual only
+ * when that individual's comfort changes, and rejects most offers with a single
+ * comparison against the weakest entry.
+ */
+public class EliteTracker {
+    private final Individual[] elite;
+    private int size;
+
+    /**
+     * Constructs an empty EliteTracker.
+     *
+     * @param capacity The maximum number of distinct allocations to keep.
+     */
+    public EliteTracker(int capacity) {
+        this.elite = new Individual[capacity];
+        this.size = 0;
+    }
+
+    /**
+     * Offers an individual whose comfort has just been set. A snapshot is stored
+     * if it ranks among the best distinct allocations seen so far.
+     *
+     * @param individual The individual to offer.
+     */
+    public void offer(Individual individual) {
+        double comfort = individual.getComfort();
+        if (size == elite.length && comfort <= elite[size - 1].getComfort()) {
+            return;
+        }
+        int position = size;
+        for (int i = 0; i < size; i++) {
+            if (elite[i].hasSameAllocation(individual)) {
+                return;
+            }
+            if (position == size && comfort > elite[i].getComfort()) {
+                position = i;
+            }
+        }
+        if (size < elite.length) {
+            size++;
+        }
+        System.arraycopy(elite, position, elite, position + 1, size - position - 1);
+        elite[position] = individual.deepCopy();
+    }
+
+    /**
+     * Replaces the stored individuals, for instance with those saved in a checkpoint.
+     *
+     * @param individuals Distinct individuals by decreasing comfort, at most capacity of them.
+     */
+    public void restore(List<Individual> individuals) {
+        if (individuals.size() > elite.length) {
+            throw new IllegalArgumentException("Too many elite individuals: " + individuals.size());
+        }
+        Arrays.fill(elite, null);
+        size = 0;
+        for (Individual individual : individuals) {
+            elite[size++] = individual;
+        }
+    }
+
+    /**
+     * Gets the best individual found so far.
+     *
+     * @return The best individual, or null if nothing has been offered.
+     */
+    public Individual getBest() {
+        return size == 0 ? null : elite[0];
+    }
+
+    /**
+     * Gets the best distinct individuals found so far, by decreasing comfort.
+     *
+     * @return A list of the stored individuals, starting with the best.
+     */
+    public List<Individual> getCandidates() {
+        List<Individual> candidates = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            candidates.add(elite[i]);
+        }
+        return candidates;
+    }
+
+    /**
+     * Gets the number of stored individuals.
+     *
+     * @return The number of stored individuals.
+     */
+    public int size() {
+        return size;
+    }
+}
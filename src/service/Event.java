@@ -4,27 +4,13 @@ import src.main.Main;
 
 /**
  * Abstract class representing an event.
+ * <p>
+ * No event object is created per event: an individual's pending event is stored on the individual
+ * as an {@link EventType} and a time, and each run owns one instance of each event, held by its
+ * {@link EventFactory}, that executes it. These instances may carry per-run state, such as the
+ * system permutation reused by {@link ReproduceEvent}, which is part of what a checkpoint saves.
  */
 public abstract class Event {
-    private double time;
-
-    /**
-     * Constructs an event with the given time.
-     *
-     * @param time The time at which the event occurs.
-     */
-    public Event(double time) {
-        this.time = time;
-    }
-
-    /**
-     * Returns the time at which the event occurs.
-     *
-     * @return The time at which the event occurs.
-     */
-    public double getTime() {
-        return time;
-    }
 
     /**
      * Executes the event on the given individual.
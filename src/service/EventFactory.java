@@ -2,16 +2,38 @@
 package src.service;
 
 import src.model.Individual;
-import java.util.Random;
+import java.util.random.RandomGenerator;
 
 /**
  * Factory class to create events.
+ * <p>
+ * Each of the three events of an individual happens after an exponential time whose mean
+ * depends on the individual's comfort, and the earliest one is scheduled. The means are
+ * cached on the individual and only recomputed when its comfort changes.
  */
 public class EventFactory {
+
+    /**
+     * Method used to draw the earliest of the three exponential event times.
+     */
+    public enum Sampler {
+        /** Draws the three times and keeps the smallest: three logarithms per event. */
+        CLASSIC,
+        /**
+         * Draws the minimum directly, an exponential time with the sum of the three rates,
+         * and picks the event with probability proportional to its rate: one logarithm per event.
+         */
+        COMPETING
+    }
+
     private double reproductionRate;
     private double mutationRate;
     private double deathRate;
-    private Random random;
+    private RandomGenerator random;
+    private MutateEvent mutateEvent;
+    private ReproduceEvent reproduceEvent;
+    private DeathEvent deathEvent;
+    private Sampler sampler = Sampler.COMPETING;
 
     /**
      * Constructs an EventFactory with the given parameters.
@@ -19,37 +41,146 @@ public class EventFactory {
      * @param reproductionRate The reproduction rate.
      * @param mutationRate The mutation rate.
      * @param deathRate The death rate.
-     * @param random The Random instance for generating random values.
+     * @param random The random generator of the run.
      */
-    public EventFactory(double reproductionRate, double mutationRate, double deathRate, Random random) {
+    public EventFactory(double reproductionRate, double mutationRate, double deathRate, RandomGenerator random) {
         this.reproductionRate = reproductionRate;
         this.mutationRate = mutationRate;
         this.deathRate = deathRate;
         this.random = random;
+        this.mutateEvent = new MutateEvent(random);
+        this.reproduceEvent = new ReproduceEvent(random);
+        this.deathEvent = new DeathEvent();
     }
 
     /**
-     * Creates an event for the given individual.
+     * Draws the next event of the given individual and stores its type and time on it.
      *
      * @param individual The individual for which to create an event.
-     * @return The created event.
+     * @param currentTime The current time in the simulation.
      */
-    public Event createEvent(Individual individual) {
+    public void createEvent(Individual individual, double currentTime) {
         double comfort = individual.getComfort();
-        double deathRate = (1 - Math.log(1 - comfort)) * this.deathRate;
-        double mutationRate = (1 - Math.log(comfort)) * this.mutationRate;
-        double reproductionRate = (1 - Math.log(comfort)) * this.reproductionRate;
+        if (individual.getRatesComfort() != comfort) {
+            double deathRate = (1 - Math.log(1 - comfort)) * this.deathRate;
+            double mutationRate = (1 - Math.log(comfort)) * this.mutationRate;
+            double reproductionRate = (1 - Math.log(comfort)) * this.reproductionRate;
+            individual.setEventRates(comfort, deathRate, mutationRate, reproductionRate);
+        }
+
+        double totalRate = individual.getTotalEventRate();
+        if (sampler == Sampler.COMPETING && !Double.isInfinite(totalRate)) {
+            createCompetingEvent(individual, currentTime, totalRate);
+        } else {
+            createClassicEvent(individual, currentTime);
+        }
+    }
 
-        double Tdeath = -deathRate * Math.log(1 - random.nextDouble());
-        double Tmutation = -mutationRate * Math.log(1 - random.nextDouble());
-        double Treproduction = -reproductionRate * Math.log(1 - random.nextDouble());
+    /**
+     * Draws the three event times and schedules the earliest.
+     *
+     * @param individual The individual for which to create an event.
+     * @param currentTime The current time in the simulation.
+     */
+    private void createClassicEvent(Individual individual, double currentTime) {
+        double Tdeath = -individual.getDeathMean() * Math.log(1 - random.nextDouble());
+        double Tmutation = -individual.getMutationMean() * Math.log(1 - random.nextDouble());
+        double Treproduction = -individual.getReproductionMean() * Math.log(1 - random.nextDouble());
 
         if (Tmutation < Tdeath && Tmutation < Treproduction) {
-            return new MutateEvent(Tmutation, random);
+            individual.setEventType(EventType.MUTATE);
+            individual.setTime(currentTime + Tmutation);
         } else if (Treproduction < Tdeath && Treproduction < Tmutation) {
-            return new ReproduceEvent(Treproduction, random);
+            individual.setEventType(EventType.REPRODUCE);
+            individual.setTime(currentTime + Treproduction);
         } else {
-            return new DeathEvent(Tdeath);
+            individual.setEventType(EventType.DEATH);
+            individual.setTime(currentTime + Tdeath);
+        }
+    }
+
+    /**
+     * Draws the time of the earliest event, exponential with the total rate, and then which
+     * event it is, independently, with probability proportional to each event's rate.
+     *
+     * @param individual The individual for which to create an event.
+     * @param currentTime The current time in the simulation.
+     * @param totalRate The sum of the three event rates (inverse means).
+     */
+    private void createCompetingEvent(Individual individual, double currentTime, double totalRate) {
+        double T = -Math.log(1 - random.nextDouble()) / totalRate;
+        double u = random.nextDouble() * totalRate;
+
+        double mutation = 1 / individual.getMutationMean();
+        if (u < mutation) {
+            individual.setEventType(EventType.MUTATE);
+        } else if (u < mutation + 1 / individual.getReproductionMean()) {
+            individual.setEventType(EventType.REPRODUCE);
+        } else {
+            individual.setEventType(EventType.DEATH);
+        }
+        individual.setTime(currentTime + T);
+    }
+
+    /**
+     * Sets the method used to draw event times.
+     *
+     * @param sampler The sampler to use.
+     */
+    public void setSampler(Sampler sampler) {
+        this.sampler = sampler;
+    }
+
+    /**
+     * Sets the cache used by reproduction to skip the fitness computation of remembered allocations.
+     *
+     * @param fitnessCache The cache, or null to disable it.
+     */
+    public void setFitnessCache(FitnessCache fitnessCache) {
+        reproduceEvent.setFitnessCache(fitnessCache);
+    }
+
+    /**
+     * Sets the local search applied to the offspring of reproduction.
+     *
+     * @param localSearch The local search, or null to disable it.
+     */
+    public void setLocalSearch(LocalSearch localSearch) {
+        reproduceEvent.setLocalSearch(localSearch);
+    }
+
+    /**
+     * Gets the local search applied to the offspring of reproduction.
+     *
+     * @return The local search, or null if it is disabled.
+     */
+    public LocalSearch getLocalSearch() {
+        return reproduceEvent.getLocalSearch();
+    }
+
+    /**
+     * Gets the method used to draw event times.
+     *
+     * @return The sampler in use.
+     */
+    public Sampler getSampler() {
+        return sampler;
+    }
+
+    /**
+     * Gets the event that executes events of the given type.
+     *
+     * @param type The type of the event.
+     * @return The shared event instance.
+     */
+    public Event getEvent(EventType type) {
+        switch (type) {
+            case MUTATE:
+                return mutateEvent;
+            case REPRODUCE:
+                return reproduceEvent;
+            default:
+                return deathEvent;
         }
     }
 }
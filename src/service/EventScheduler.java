@@ -0,0 +1,188 @@
+package src.service;
+
+import src.model.Individual;
+
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+/**
+ * Pending-event calendar of the simulation.
+ * <p>
+ * Indexed binary min-heap of individuals keyed by the time of their next event.
+ * Each individual stores its own position in the heap, so insertion, removal of
+ * the earliest event, rescheduling and removal of an arbitrary individual all
+ * run in O(log N), and peeking the next event is O(1).
+ */
+public class EventScheduler {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private Individual[] heap;
+    private int size;
+
+    /**
+     * Constructs an empty EventScheduler.
+     */
+    public EventScheduler() {
+        this.heap = new Individual[INITIAL_CAPACITY];
+        this.size = 0;
+    }
+
+    /**
+     * Schedules the individual at its current event time, or moves it to its new
+     * position if it was already scheduled.
+     *
+     * @param individual The individual whose next event time has been set.
+     */
+    public void schedule(Individual individual) {
+        int index = individual.getSchedulerIndex();
+        if (index < 0) {
+            if (size == heap.length) {
+                heap = Arrays.copyOf(heap, size * 2);
+            }
+            heap[size] = individual;
+            individual.setSchedulerIndex(size);
+            siftUp(size++);
+        } else if (!siftUp(index)) {
+            siftDown(index);
+        }
+    }
+
+    /**
+     * Removes the individual from the calendar. Does nothing if it is not scheduled.
+     *
+     * @param individual The individual to remove.
+     */
+    public void remove(Individual individual) {
+        int index = individual.getSchedulerIndex();
+        if (index < 0) {
+            return;
+        }
+        individual.setSchedulerIndex(-1);
+        Individual last = heap[--size];
+        heap[size] = null;
+        if (index < size) {
+            heap[index] = last;
+            last.setSchedulerIndex(index);
+            if (!siftUp(index)) {
+                siftDown(index);
+            }
+        }
+    }
+
+    /**
+     * Removes every scheduled individual matching the filter, then rebuilds the heap bottom-up.
+     * Runs in O(N) whatever the number of removals, which is cheaper than removing them one by one
+     * when a large share of the calendar goes at once.
+     *
+     * @param filter Returns true for the individuals to remove.
+     */
+    public void removeIf(Predicate<Individual> filter) {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            Individual individual = heap[i];
+            if (filter.test(individual)) {
+                individual.setSchedulerIndex(-1);
+            } else {
+                heap[kept] = individual;
+                individual.setSchedulerIndex(kept++);
+            }
+        }
+        Arrays.fill(heap, kept, size, null);
+        size = kept;
+        for (int i = (size >>> 1) - 1; i >= 0; i--) {
+            siftDown(i);
+        }
+    }
+
+    /**
+     * Returns the individual with the earliest pending event without removing it.
+     *
+     * @return The next individual, or null if nothing is scheduled.
+     */
+    public Individual peek() {
+        return size == 0 ? null : heap[0];
+    }
+
+    /**
+     * Removes and returns the individual with the earliest pending event.
+     *
+     * @return The next individual, or null if nothing is scheduled.
+     */
+    public Individual poll() {
+        Individual first = peek();
+        if (first != null) {
+            remove(first);
+        }
+        return first;
+    }
+
+    /**
+     * Gets the number of scheduled individuals.
+     *
+     * @return The number of scheduled individuals.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether nothing is scheduled.
+     *
+     * @return True if the calendar is empty.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Moves the entry at the given index towards the root while it is earlier than its parent.
+     *
+     * @param index The heap index to sift.
+     * @return True if the entry moved.
+     */
+    private boolean siftUp(int index) {
+        Individual individual = heap[index];
+        double time = individual.getTime();
+        int start = index;
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            Individual other = heap[parent];
+            if (time >= other.getTime()) {
+                break;
+            }
+            heap[index] = other;
+            other.setSchedulerIndex(index);
+            index = parent;
+        }
+        heap[index] = individual;
+        individual.setSchedulerIndex(index);
+        return index != start;
+    }
+
+    /**
+     * Moves the entry at the given index towards the leaves while it is later than a child.
+     *
+     * @param index The heap index to sift.
+     */
+    private void siftDown(int index) {
+        Individual individual = heap[index];
+        double time = individual.getTime();
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            int right = child + 1;
+            if (right < size && heap[right].getTime() < heap[child].getTime()) {
+                child = right;
+            }
+            Individual other = heap[child];
+            if (time <= other.getTime()) {
+                break;
+            }
+            heap[index] = other;
+            other.setSchedulerIndex(index);
+            index = child;
+        }
+        heap[index] = individual;
+        individual.setSchedulerIndex(index);
+    }
+}
@@ -0,0 +1,358 @@
+package src.service;
+
+import src.model.CostMatrix;
+import src.model.Individual;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Exact branch-and-bound solver proving the smallest policing time of an instance.
+ * <p>
+ * The systems are assigned one by one, by decreasing cheapest cost, and each system is tried on
+ * the patrols in increasing order of the load they would reach, so good allocations are found
+ * early. A branch is pruned as soon as it cannot beat the incumbent: when the system does not fit
+ * below it on any patrol, when the largest cheapest cost of the remaining systems reaches it, or
+ * when the current loads and the cheapest costs of the remaining systems sum to more than n times
+ * the incumbent minus one. Patrols with identical costs and equal loads are interchangeable, so only
+ * the first of them is tried. The incumbent starts from the LPT allocation of WarmStart improved by
+ * LocalSearch, and the search stops early when it reaches the LowerBound.
+ * <p>
+ * The top of the tree is split into ForkJoin tasks balanced by work stealing, which share the
+ * incumbent. The optimal policing time does not depend on the number of threads, but when several
+ * allocations reach it, which one is returned may.
+ */
+public class ExactSolver {
+
+    /**
+     * How the command line chooses between the exact solver and the evolutionary algorithm.
+     */
+    public enum Mode {
+        /** The exact solver for small instances, falling back to evolution if it takes too long. */
+        AUTO,
+        /** The exact solver, whatever the size of the instance. */
+        EXACT,
+        /** The evolutionary algorithm. */
+        EVOLUTION
+    }
+
+    /** Number of explored nodes after which the AUTO mode gives up and falls back to evolution. */
+    public static final long AUTO_NODE_LIMIT = 10_000_000;
+    private static final double AUTO_SIZE = 40; // largest m * log2(n) for which AUTO tries the exact solver
+    private static final int TASKS_PER_THREAD = 16; // tasks created at the top of the tree for each thread
+    private static final int NODE_BATCH = 4096; // nodes a task explores between two reads of the node limit
+
+    private final CostMatrix costs;
+    private final int n;
+    private final int m;
+    private final int[] order; // order[d] is the system assigned at depth d
+    private final long[] remainingSum; // remainingSum[d] is the sum of the cheapest costs of order[d..]
+    private final int[] remainingMax; // remainingMax[d] is the largest cheapest cost of order[d..]
+    private final int[] previousTwin; // previous patrol with the same costs, or -1
+    private final long nodeLimit;
+    private final AtomicInteger incumbent = new AtomicInteger();
+    private final LongAdder nodes = new LongAdder();
+    private volatile boolean aborted;
+    private int lowerBound;
+    private int[] best;
+
+    /**
+     * Constructs an ExactSolver and orders the systems of the instance.
+     *
+     * @param costs The time required by each patrol to pacify each system.
+     * @param nodeLimit The number of explored nodes after which the search gives up, or 0 for no limit.
+     */
+    public ExactSolver(CostMatrix costs, long nodeLimit) {
+        this.costs = costs;
+        this.n = costs.getN();
+        this.m = costs.getM();
+        this.nodeLimit = nodeLimit;
+
+        long[] keys = new long[m]; // cheapest cost in the high bits, system id in the low bits
+        for (int s = 0; s < m; s++) {
+            int cheapest = Integer.MAX_VALUE;
+            for (int p = 0; p < n; p++) {
+                cheapest = Math.min(cheapest, costs.get(p, s));
+            }
+            keys[s] = ((long) cheapest << 32) | s;
+        }
+        Arrays.sort(keys);
+        order = new int[m];
+        remainingSum = new long[m + 1];
+        remainingMax = new int[m + 1];
+        for (int d = m - 1; d >= 0; d--) {
+            long key = keys[m - 1 - d];
+            order[d] = (int) key;
+            remainingSum[d] = remainingSum[d + 1] + (key >>> 32);
+            remainingMax[d] = Math.max(remainingMax[d + 1], (int) (key >>> 32));
+        }
+
+        previousTwin = new int[n];
+        for (int p = 0; p < n; p++) {
+            previousTwin[p] = -1;
+            for (int q = p - 1; q >= 0 && previousTwin[p] < 0; q--) {
+                boolean same = true;
+                for (int s = 0; s < m && same; s++) {
+                    same = costs.get(p, s) == costs.get(q, s);
+                }
+                if (same) {
+                    previousTwin[p] = q;
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks whether a mode runs the exact solver on an instance.
+     *
+     * @param mode The mode chosen on the command line.
+     * @param costs The cost matrix of the instance.
+     * @return True for EXACT, and for AUTO if the instance is small.
+     */
+    public static boolean isChosen(Mode mode, CostMatrix costs) {
+        switch (mode) {
+            case EXACT:
+                return true;
+            case AUTO:
+                return costs.getM() * Math.log(costs.getN()) / Math.log(2) <= AUTO_SIZE;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Searches an allocation with the smallest policing time.
+     *
+     * @param threads The number of worker threads.
+     * @return The genome of an optimal allocation, or null if the node limit was reached first.
+     */
+    public int[] solve(int threads) {
+        Individual start = new Individual(WarmStart.balanced(costs), costs, 1);
+        new LocalSearch(costs, Integer.MAX_VALUE, 1).improve(start);
+        best = start.getGenome().clone();
+        incumbent.set(start.calculatePolicingTime());
+        lowerBound = LowerBound.compute(costs);
+
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, threads));
+        try {
+            int splitDepth = 0;
+            for (long tasks = 1; tasks < (long) TASKS_PER_THREAD * threads && splitDepth < m; tasks *= n) {
+                splitDepth++;
+            }
+            pool.invoke(new Branch(0, splitDepth, new int[n], new int[m], 0, 0));
+        } finally {
+            pool.shutdown();
+        }
+        return aborted ? null : best.clone();
+    }
+
+    /**
+     * Gets the number of nodes explored by the last search.
+     *
+     * @return The number of nodes.
+     */
+    public long getNodes() {
+        return nodes.sum();
+    }
+
+    /**
+     * Gets the lower bound the last search started from.
+     *
+     * @return The lower bound.
+     */
+    public int getLowerBound() {
+        return lowerBound;
+    }
+
+    /**
+     * Records a complete allocation if it beats the incumbent.
+     *
+     * @param genome The allocation.
+     * @param policingTime Its policing time.
+     */
+    private synchronized void offer(int[] genome, int policingTime) {
+        if (policingTime < incumbent.get()) {
+            best = genome.clone();
+            incumbent.set(policingTime);
+        }
+    }
+
+    /**
+     * Checks whether the search can stop, because the incumbent is proven optimal or the node limit is reached.
+     *
+     * @return True if the search is over.
+     */
+    private boolean isOver() {
+        return aborted || incumbent.get() <= lowerBound;
+    }
+
+    /**
+     * Lists the patrols a system can go to without reaching the bound, in increasing order of the load
+     * they would reach, skipping patrols interchangeable with an earlier one.
+     *
+     * @param s The system.
+     * @param loads The patrol loads.
+     * @param bound The policing time to beat.
+     * @param children Receives the patrols.
+     * @return The number of patrols.
+     */
+    private int children(int s, int[] loads, int bound, int[] children) {
+        int count = 0;
+        for (int p = 0; p < n; p++) {
+            int load = loads[p] + costs.get(p, s);
+            if (load >= bound) {
+                continue;
+            }
+            boolean symmetric = false;
+            for (int q = previousTwin[p]; q >= 0 && !symmetric; q = previousTwin[q]) {
+                symmetric = loads[q] == loads[p];
+            }
+            if (symmetric) {
+                continue;
+            }
+            int i = count++;
+            for (; i > 0 && loads[children[i - 1]] + costs.get(children[i - 1], s) > load; i--) {
+                children[i] = children[i - 1];
+            }
+            children[i] = p;
+        }
+        return count;
+    }
+
+    /**
+     * Checks the bounds of a node.
+     *
+     * @param depth The number of assigned systems.
+     * @param maxLoad The largest patrol load.
+     * @param sumLoads The sum of the patrol loads.
+     * @param bound The policing time to beat.
+     * @return True if the node cannot lead to an allocation below the bound.
+     */
+    private boolean isPruned(int depth, int maxLoad, long sumLoads, int bound) {
+        return maxLoad >= bound || remainingMax[depth] >= bound
+               || sumLoads + remainingSum[depth] > (long) n * (bound - 1);
+    }
+
+    /**
+     * Task exploring the subtree below a partial allocation, split into subtasks above the split depth.
+     */
+    private class Branch extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final int depth;
+        private final int splitDepth;
+        private final int[] loads;
+        private final int[] genome;
+        private final int maxLoad;
+        private final long sumLoads;
+
+        /**
+         * Constructs a Branch.
+         *
+         * @param depth The number of assigned systems.
+         * @param splitDepth The depth below which the subtree is searched sequentially.
+         * @param loads The patrol loads, owned by the task.
+         * @param genome The partial allocation, owned by the task.
+         * @param maxLoad The largest patrol load.
+         * @param sumLoads The sum of the patrol loads.
+         */
+        Branch(int depth, int splitDepth, int[] loads, int[] genome, int maxLoad, long sumLoads) {
+            this.depth = depth;
+            this.splitDepth = splitDepth;
+            this.loads = loads;
+            this.genome = genome;
+            this.maxLoad = maxLoad;
+            this.sumLoads = sumLoads;
+        }
+
+        @Override
+        protected void compute() {
+            if (depth >= splitDepth) {
+                Search search = new Search(loads, genome);
+                search.search(depth, maxLoad, sumLoads);
+                nodes.add(search.pending);
+                return;
+            }
+            int bound = incumbent.get();
+            if (isOver() || isPruned(depth, maxLoad, sumLoads, bound)) {
+                return;
+            }
+            nodes.increment();
+            int s = order[depth];
+            int[] patrols = new int[n];
+            int count = children(s, loads, bound, patrols);
+            List<Branch> branches = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int p = patrols[i];
+                int[] childLoads = loads.clone();
+                int[] childGenome = genome.clone();
+                childLoads[p] += costs.get(p, s);
+                childGenome[s] = p;
+                branches.add(new Branch(depth + 1, splitDepth, childLoads, childGenome,
+                                        Math.max(maxLoad, childLoads[p]), sumLoads + costs.get(p, s)));
+            }
+            invokeAll(branches);
+        }
+    }
+
+    /**
+     * Sequential depth-first search of a subtree, with scratch arrays for each depth.
+     */
+    private class Search {
+        private final int[] loads;
+        private final int[] genome;
+        private final int[][] patrols = new int[m][n];
+        private int pending; // nodes not yet added to the shared counter
+
+        /**
+         * Constructs a Search.
+         *
+         * @param loads The patrol loads, modified in place.
+         * @param genome The partial allocation, modified in place.
+         */
+        Search(int[] loads, int[] genome) {
+            this.loads = loads;
+            this.genome = genome;
+        }
+
+        /**
+         * Explores the subtree below the current partial allocation.
+         *
+         * @param depth The number of assigned systems.
+         * @param maxLoad The largest patrol load.
+         * @param sumLoads The sum of the patrol loads.
+         */
+        void search(int depth, int maxLoad, long sumLoads) {
+            if (++pending == NODE_BATCH) {
+                nodes.add(pending);
+                pending = 0;
+                if (nodeLimit > 0 && nodes.sum() > nodeLimit) {
+                    aborted = true;
+                }
+            }
+            int bound = incumbent.get();
+            if (isOver() || isPruned(depth, maxLoad, sumLoads, bound)) {
+                return;
+            }
+            if (depth == m) {
+                offer(genome, maxLoad);
+                return;
+            }
+            int s = order[depth];
+            int[] children = patrols[depth];
+            int count = children(s, loads, bound, children);
+            for (int i = 0; i < count; i++) {
+                int p = children[i];
+                int cost = costs.get(p, s);
+                loads[p] += cost;
+                genome[s] = p;
+                search(depth + 1, Math.max(maxLoad, loads[p]), sumLoads + cost);
+                loads[p] -= cost;
+            }
+        }
+    }
+}
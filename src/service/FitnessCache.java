@@ -0,0 +1,175 @@
+package src.service;
+
+/**
+ * Bounded memo of the policing time of allocations, keyed by their Zobrist fingerprint.
+ * <p>
+ * Entries live in a fixed array indexed by an open-addressing table, and are evicted with the
+ * CLOCK policy: each hit sets a reference bit, and the hand gives referenced entries a second
+ * chance before replacing the first unreferenced one. Lookups and insertions allocate nothing.
+ * Entries are trusted on a fingerprint match, which is wrong with a probability of about
+ * capacity / 2^64 per lookup.
+ */
+public class FitnessCache {
+    private final long[] keys;
+    private final int[] values;
+    private final boolean[] referenced;
+    private final int[] table; // entry index + 1 for each table slot, 0 if the slot is free
+    private final int mask;
+    private int size;
+    private int hand;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Constructs an empty FitnessCache.
+     *
+     * @param capacity The maximum number of allocations remembered.
+     */
+    public FitnessCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("The capacity must be positive: " + capacity);
+        }
+        this.keys = new long[capacity];
+        this.values = new int[capacity];
+        this.referenced = new boolean[capacity];
+        this.table = new int[Integer.highestOneBit(capacity) << 2]; // load factor at most 1/2
+        this.mask = table.length - 1;
+    }
+
+    /**
+     * Looks up the policing time of an allocation, counting a hit or a miss.
+     *
+     * @param fingerprint The fingerprint of the allocation.
+     * @return The policing time, or -1 if the allocation is not remembered.
+     */
+    public int get(long fingerprint) {
+        for (int slot = slotOf(fingerprint); table[slot] != 0; slot = (slot + 1) & mask) {
+            int entry = table[slot] - 1;
+            if (keys[entry] == fingerprint) {
+                referenced[entry] = true;
+                hits++;
+                return values[entry];
+            }
+        }
+        misses++;
+        return -1;
+    }
+
+    /**
+     * Remembers the policing time of an allocation, evicting an entry if the cache is full.
+     * Does nothing if the allocation is already remembered.
+     *
+     * @param fingerprint The fingerprint of the allocation.
+     * @param policingTime The policing time of the allocation.
+     */
+    public void put(long fingerprint, int policingTime) {
+        int slot = slotOf(fingerprint);
+        for (; table[slot] != 0; slot = (slot + 1) & mask) {
+            if (keys[table[slot] - 1] == fingerprint) {
+                return;
+            }
+        }
+        int entry;
+        if (size < keys.length) {
+            entry = size++;
+        } else {
+            entry = evict();
+            // the removal may have shifted entries into the probe sequence of the new key
+            slot = slotOf(fingerprint);
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+        }
+        keys[entry] = fingerprint;
+        values[entry] = policingTime;
+        referenced[entry] = false;
+        table[slot] = entry + 1;
+    }
+
+    /**
+     * Advances the clock hand to an unreferenced entry and removes it from the table.
+     *
+     * @return The index of the freed entry.
+     */
+    private int evict() {
+        while (referenced[hand]) {
+            referenced[hand] = false;
+            hand = hand + 1 == keys.length ? 0 : hand + 1;
+        }
+        int entry = hand;
+        hand = hand + 1 == keys.length ? 0 : hand + 1;
+        evictions++;
+
+        int slot = slotOf(keys[entry]);
+        while (table[slot] != entry + 1) {
+            slot = (slot + 1) & mask;
+        }
+        // backward-shift deletion keeps every remaining key reachable from its home slot
+        for (int next = (slot + 1) & mask; table[next] != 0; next = (next + 1) & mask) {
+            int home = slotOf(keys[table[next] - 1]);
+            if (((next - home) & mask) >= ((next - slot) & mask)) {
+                table[slot] = table[next];
+                slot = next;
+            }
+        }
+        table[slot] = 0;
+        return entry;
+    }
+
+    /**
+     * Gets the home slot of a fingerprint, whose bits are already uniformly mixed.
+     *
+     * @param fingerprint The fingerprint.
+     * @return The slot index.
+     */
+    private int slotOf(long fingerprint) {
+        return (int) (fingerprint ^ (fingerprint >>> 32)) & mask;
+    }
+
+    /**
+     * Gets the number of lookups that found the allocation.
+     *
+     * @return The number of hits.
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Gets the number of lookups that did not find the allocation.
+     *
+     * @return The number of misses.
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Gets the number of entries evicted to make room for new ones.
+     *
+     * @return The number of evictions.
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Gets the share of lookups that found the allocation.
+     *
+     * @return The hit rate, or 0 before the first lookup.
+     */
+    public double getHitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    /**
+     * Gets the number of remembered allocations.
+     *
+     * @return The number of entries.
+     */
+    public int size() {
+        return size;
+    }
+}
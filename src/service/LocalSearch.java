@@ -0,0 +1,163 @@
+package src.service;
+
+import src.model.CostMatrix;
+import src.model.Individual;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Memetic stage that improves individuals by a bounded first-improvement local search.
+ * <p>
+ * The neighborhood holds the moves of one system away from a most loaded patrol (1-move) and the
+ * exchanges of such a system with a system of another patrol (2-swap). A move is accepted when it
+ * lowers the load of the critical patrol without raising any other load to the policing time, so
+ * each accepted move lowers the policing time or the number of patrols reaching it. Moves are
+ * evaluated from the patrol loads and the costs of the moved systems only, in O(1) each, and the
+ * search stops at a local optimum or after {@code budget} evaluations.
+ */
+public class LocalSearch {
+    private final CostMatrix costs;
+    private final int budget;
+    private final double rate;
+    private long applied;
+    private long improved;
+
+    /**
+     * Constructs a LocalSearch.
+     *
+     * @param costs The time required by each patrol to pacify each system.
+     * @param budget The maximum number of move evaluations per individual.
+     * @param rate The probability that an offered individual is improved.
+     */
+    public LocalSearch(CostMatrix costs, int budget, double rate) {
+        this.costs = costs;
+        this.budget = budget;
+        this.rate = rate;
+    }
+
+    /**
+     * Improves the individual with probability rate, then updates its policing time and comfort.
+     *
+     * @param individual The individual, not yet added to the population.
+     * @param random The generator of the run, only drawn from when the rate is below 1.
+     * @return True if the allocation was changed.
+     */
+    public boolean apply(Individual individual, RandomGenerator random) {
+        if (rate < 1 && random.nextDouble() >= rate) {
+            return false;
+        }
+        applied++;
+        if (!improve(individual)) {
+            return false;
+        }
+        improved++;
+        individual.setPolicingTime(individual.calculatePolicingTime());
+        individual.setComfort(individual.calculateComfort());
+        return true;
+    }
+
+    /**
+     * Runs the first-improvement search, scanning the systems cyclically from the last improvement.
+     *
+     * @param individual The individual to improve.
+     * @return True if at least one move was applied.
+     */
+    boolean improve(Individual individual) {
+        int[] genome = individual.getGenome();
+        int n = costs.getN();
+        int m = genome.length;
+        int evaluations = 0;
+        int start = 0;
+        boolean changed = false;
+
+        search:
+        while (true) {
+            int critical = individual.getCriticalPatrol();
+            int makespan = individual.getLoad(critical);
+
+            // 1-move: a system of the critical patrol goes to a patrol that stays below the makespan
+            for (int k = 0, s = start; k < m; k++, s = s + 1 == m ? 0 : s + 1) {
+                if (genome[s] != critical || costs.get(critical, s) == 0) {
+                    continue;
+                }
+                for (int q = 0; q < n; q++) {
+                    if (q == critical) {
+                        continue;
+                    }
+                    if (++evaluations > budget) {
+                        break search;
+                    }
+                    if (individual.getLoad(q) + costs.get(q, s) < makespan) {
+                        individual.moveSystem(s, q);
+                        changed = true;
+                        start = s + 1 == m ? 0 : s + 1;
+                        continue search;
+                    }
+                }
+            }
+
+            // 2-swap: a system of the critical patrol is exchanged with a system of another patrol
+            for (int k = 0, s = start; k < m; k++, s = s + 1 == m ? 0 : s + 1) {
+                if (genome[s] != critical) {
+                    continue;
+                }
+                int removed = costs.get(critical, s);
+                for (int t = 0; t < m; t++) {
+                    int q = genome[t];
+                    if (q == critical) {
+                        continue;
+                    }
+                    if (++evaluations > budget) {
+                        break search;
+                    }
+                    if (costs.get(critical, t) < removed
+                        && individual.getLoad(q) - costs.get(q, t) + costs.get(q, s) < makespan) {
+                        individual.moveSystem(s, q);
+                        individual.moveSystem(t, critical);
+                        changed = true;
+                        start = s + 1 == m ? 0 : s + 1;
+                        continue search;
+                    }
+                }
+            }
+            break;
+        }
+        return changed;
+    }
+
+    /**
+     * Gets the maximum number of move evaluations per individual.
+     *
+     * @return The budget.
+     */
+    public int getBudget() {
+        return budget;
+    }
+
+    /**
+     * Gets the probability that an offered individual is improved.
+     *
+     * @return The rate.
+     */
+    public double getRate() {
+        return rate;
+    }
+
+    /**
+     * Gets the number of individuals the search was run on.
+     *
+     * @return The number of searches.
+     */
+    public long getApplied() {
+        return applied;
+    }
+
+    /**
+     * Gets the number of searches that improved their individual.
+     *
+     * @return The number of improved individuals.
+     */
+    public long getImproved() {
+        return improved;
+    }
+}
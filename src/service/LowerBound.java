@@ -0,0 +1,127 @@
+package src.service;
+
+import src.model.CostMatrix;
+
+import java.util.Arrays;
+
+/**
+ * Provable lower bound on the best policing time (the makespan of the unrelated machines problem).
+ * <p>
+ * Two simple bounds start the search: every system needs at least its cheapest time (max-min),
+ * and the cheapest times sum to at most n times the makespan (average). The bound is then raised by
+ * bisection on a candidate makespan T, using the Lagrangian relaxation of the patrol loads: if an
+ * allocation of policing time at most T existed, it would only use costs up to T, and for any
+ * weights {@code w} on the simplex its weighted load {@code sum_p w_p load_p} would be at most T;
+ * so T is ruled out as soon as {@code sum_s min_{p : c(p,s) <= T} w_p c(p,s) > T} for some weights.
+ * The weights are searched by exponentiated subgradient ascent, and the best value they reach is
+ * the LP relaxation bound of Lenstra, Shmoys and Tardos. A value ruled out by some weights is ruled
+ * out for every smaller T as well, which makes the bisection valid whatever weights are found.
+ */
+public class LowerBound {
+    private static final int ITERATIONS = 100; // subgradient steps per candidate makespan
+    private static final double TOLERANCE = 1e-9; // relative margin absorbing rounding errors
+
+    private LowerBound() {
+    }
+
+    /**
+     * Computes a lower bound on the policing time of every allocation.
+     *
+     * @param costs The time required by each patrol to pacify each system.
+     * @return The lower bound.
+     */
+    public static int compute(CostMatrix costs) {
+        int n = costs.getN();
+        int m = costs.getM();
+        int maxMin = 0;
+        long sumMin = 0;
+        for (int s = 0; s < m; s++) {
+            int cheapest = Integer.MAX_VALUE;
+            for (int p = 0; p < n; p++) {
+                cheapest = Math.min(cheapest, costs.get(p, s));
+            }
+            maxMin = Math.max(maxMin, cheapest);
+            sumMin += cheapest;
+        }
+        int low = (int) Math.max(maxMin, (sumMin + n - 1) / n);
+        int high = policingTime(costs, WarmStart.balanced(costs)); // achievable, so never ruled out
+
+        double[] weights = new double[n];
+        double[] subgradient = new double[n];
+        while (low < high) {
+            int middle = low + (high - low) / 2;
+            if (isRuledOut(costs, middle, weights, subgradient)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Searches weights proving that no allocation has a policing time of at most T.
+     *
+     * @param costs The cost matrix.
+     * @param makespan The candidate makespan T.
+     * @param weights Scratch array of n weights.
+     * @param subgradient Scratch array of n values.
+     * @return True if T is ruled out.
+     */
+    static boolean isRuledOut(CostMatrix costs, int makespan, double[] weights, double[] subgradient) {
+        int n = costs.getN();
+        int m = costs.getM();
+        Arrays.fill(weights, 1.0 / n);
+        for (int iteration = 0; iteration < ITERATIONS; iteration++) {
+            Arrays.fill(subgradient, 0);
+            double value = 0;
+            for (int s = 0; s < m; s++) {
+                double best = Double.POSITIVE_INFINITY;
+                int chosen = -1;
+                for (int p = 0; p < n; p++) {
+                    int cost = costs.get(p, s);
+                    if (cost <= makespan && weights[p] * cost < best) {
+                        best = weights[p] * cost;
+                        chosen = p;
+                    }
+                }
+                if (chosen < 0) {
+                    return true; // no patrol pacifies this system within T
+                }
+                value += best;
+                subgradient[chosen] += costs.get(chosen, s);
+            }
+            if (value > makespan * (1 + TOLERANCE)) {
+                return true;
+            }
+            // move the weight towards the patrols the relaxed allocation overloads
+            double step = 1 / Math.sqrt(iteration + 1.0);
+            double total = 0;
+            for (int p = 0; p < n; p++) {
+                weights[p] *= Math.exp(step * Math.min(subgradient[p] / makespan, 50));
+                total += weights[p];
+            }
+            for (int p = 0; p < n; p++) {
+                weights[p] /= total;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Computes the policing time of an allocation.
+     *
+     * @param costs The cost matrix.
+     * @param genome The patrol of each system.
+     * @return The largest patrol load.
+     */
+    private static int policingTime(CostMatrix costs, int[] genome) {
+        long[] loads = new long[costs.getN()];
+        long max = 0;
+        for (int s = 0; s < genome.length; s++) {
+            loads[genome[s]] += costs.get(genome[s], s);
+            max = Math.max(max, loads[genome[s]]);
+        }
+        return (int) max;
+    }
+}
@@ -2,26 +2,21 @@ package src.service;
 
 import src.main.Main;
 import src.model.Individual;
-import src.model.Patrol;
-import src.model.PlanetarySystem;
 
-import java.util.List;
-import java.util.Random;
+import java.util.random.RandomGenerator;
 
 /**
  * Class representing a mutate event.
  */
 public class MutateEvent extends Event {
-    private Random random;
+    private RandomGenerator random;
 
     /**
-     * Constructs a MutateEvent with the given time and Random instance.
+     * Constructs a MutateEvent with the given random generator.
      *
-     * @param time The time at which the event occurs.
-     * @param random The Random instance for generating random values.
+     * @param random The random generator of the run.
      */
-    public MutateEvent(double time, Random random) {
-        super(time);
+    public MutateEvent(RandomGenerator random) {
         this.random = random;
     }
 
@@ -34,27 +29,26 @@ public class MutateEvent extends Event {
      */
     @Override
     public void execute(Individual individual, double currentTime, Main main) {
-        List<Patrol> patrols = main.getPatrols();
-        int randomPatrolIndex = random.nextInt(patrols.size());
-        Patrol randomPatrol = patrols.get(randomPatrolIndex);
-        List<PlanetarySystem> systemsRandomPatrol = individual.getAllocation().get(randomPatrol);
+        int numberOfPatrols = main.getPatrols().size();
+        int randomPatrolIndex = random.nextInt(numberOfPatrols);
+        int systemsRandomPatrol = individual.getSystemCount(randomPatrolIndex);
 
-        if (!systemsRandomPatrol.isEmpty()) {
-            PlanetarySystem system = individual.getAllocation().get(randomPatrol).remove(random.nextInt(systemsRandomPatrol.size()));
+        if (systemsRandomPatrol > 0) {
+            int system = individual.getSystemOfPatrol(randomPatrolIndex, random.nextInt(systemsRandomPatrol));
 
-            int newPatrolIndex = random.nextInt(patrols.size());
+            int newPatrolIndex = random.nextInt(numberOfPatrols);
             while (newPatrolIndex == randomPatrolIndex) {
-                newPatrolIndex = random.nextInt(patrols.size());
+                newPatrolIndex = random.nextInt(numberOfPatrols);
             }
-            Patrol newPatrol = patrols.get(newPatrolIndex);
 
-            individual.getAllocation().get(newPatrol).add(system);
+            individual.moveSystem(system, newPatrolIndex);
 
             int new_policing_time = individual.calculatePolicingTime();
             individual.setPolicingTime(new_policing_time);
 
             double new_comfort = individual.calculateComfort();
             individual.setComfort(new_comfort);
+            main.getPopulation().updateIndividual(individual);
         }
 
         main.setNextEvent(currentTime, individual);
@@ -0,0 +1,125 @@
+package src.service;
+
+import src.model.Individual;
+
+import java.util.List;
+
+/**
+ * Snapshot of the state of a simulation at an observation instant.
+ */
+public class Observation {
+    private final int number;
+    private final double time;
+    private final long events;
+    private final int populationSize;
+    private final int epidemics;
+    private final Individual best;
+    private final List<Individual> candidates;
+    private final int lowerBound;
+
+    /**
+     * Constructs an Observation.
+     *
+     * @param number The observation number.
+     * @param time The present instant.
+     * @param events The number of realized events.
+     * @param populationSize The population size.
+     * @param epidemics The number of epidemics.
+     * @param best The best individual found so far.
+     * @param candidates The best distinct individuals found so far, starting with the best.
+     * @param lowerBound A proven lower bound on the policing time, or 0 if none is known.
+     */
+    public Observation(int number, double time, long events, int populationSize, int epidemics,
+                       Individual best, List<Individual> candidates, int lowerBound) {
+        this.number = number;
+        this.time = time;
+        this.events = events;
+        this.populationSize = populationSize;
+        this.epidemics = epidemics;
+        this.best = best;
+        this.candidates = candidates;
+        this.lowerBound = lowerBound;
+    }
+
+    /**
+     * Gets the observation number.
+     *
+     * @return The observation number.
+     */
+    public int getNumber() {
+        return number;
+    }
+
+    /**
+     * Gets the present instant.
+     *
+     * @return The simulation time of the observation.
+     */
+    public double getTime() {
+        return time;
+    }
+
+    /**
+     * Gets the number of realized events.
+     *
+     * @return The number of events.
+     */
+    public long getEvents() {
+        return events;
+    }
+
+    /**
+     * Gets the population size.
+     *
+     * @return The population size.
+     */
+    public int getPopulationSize() {
+        return populationSize;
+    }
+
+    /**
+     * Gets the number of epidemics.
+     *
+     * @return The number of epidemics.
+     */
+    public int getEpidemics() {
+        return epidemics;
+    }
+
+    /**
+     * Gets the best individual found so far.
+     *
+     * @return The best individual.
+     */
+    public Individual getBest() {
+        return best;
+    }
+
+    /**
+     * Gets the best distinct individuals found so far.
+     *
+     * @return The candidates, starting with the best.
+     */
+    public List<Individual> getCandidates() {
+        return candidates;
+    }
+
+    /**
+     * Gets the proven lower bound on the policing time.
+     *
+     * @return The lower bound, or 0 if none is known.
+     */
+    public int getLowerBound() {
+        return lowerBound;
+    }
+
+    /**
+     * Gets the relative distance between the best policing time and the lower bound.
+     * A gap of 0 proves that the best individual is optimal.
+     *
+     * @return The gap, or NaN if no lower bound is known.
+     */
+    public double getOptimalityGap() {
+        return lowerBound > 0 ? (best.getPolicingTime() - lowerBound) / lowerBound : Double.NaN;
+    }
+}
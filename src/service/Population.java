@@ -1,19 +1,24 @@
 package src.service;
 
+import src.metrics.SimulationMetrics;
 import src.model.Individual;
-import src.model.Patrol;
-import src.model.PlanetarySystem;
 
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.random.RandomGenerator;
 
 /**
  * Class representing a population of individuals.
  */
 public class Population{
-    private List<Individual> individuals;
+    private List<Individual> individuals; // individuals.get(i).getPopulationIndex() == i
+    private List<Individual> individualsView;
     private int maxPopulation;
-    public static Population instance;
+    private EventScheduler scheduler;
+    private EliteTracker elite;
+    private int[] protectedSlots;
+    private SimulationMetrics metrics;
+    private static final int ELITE_SIZE = 6; // 5 candidates + best
+    private static final int PROTECTED = 5; // individuals always surviving an epidemic
 
     /**
      * Constructs a Population with the given maximum population size.
@@ -22,84 +27,201 @@ public class Population{
      */
     public Population(int _maxPopulation) {
         this.individuals = new ArrayList<>();
+        this.individualsView = Collections.unmodifiableList(individuals);
         this.maxPopulation = _maxPopulation;
+        this.scheduler = new EventScheduler();
+        this.elite = new EliteTracker(ELITE_SIZE);
+        this.protectedSlots = new int[PROTECTED];
     }
 
     /**
-     * Returns the instance of the Population class.
+     * Adds an individual to the population.
      *
-     * @param _maxPopulation The maximum population size.
-     * @return The instance of the Population class.
+     * @param individual The individual to add.
      */
-    public static Population getInstance(int _maxPopulation) {
-        if (instance == null) {
-            instance = new Population(_maxPopulation);
-        }
-        return instance;
+    public void addIndividual(Individual individual) {
+        individual.setPopulationIndex(individuals.size());
+        individuals.add(individual);
+        offerToElite(individual);
     }
 
     /**
-     * Adds an individual to the population.
+     * Adds an individual restored from a checkpoint, without offering it to the elite,
+     * which is restored separately.
      *
      * @param individual The individual to add.
      */
-    public void addIndividual(Individual individual) {
+    public void addRestoredIndividual(Individual individual) {
+        individual.setPopulationIndex(individuals.size());
         individuals.add(individual);
     }
 
+    /**
+     * Notifies the population that the comfort of one of its individuals has changed.
+     *
+     * @param individual The updated individual.
+     */
+    public void updateIndividual(Individual individual) {
+        offerToElite(individual);
+    }
+
+    /**
+     * Offers an individual to the elite tracker, timing the offer inside sampled events.
+     *
+     * @param individual The individual to offer.
+     */
+    private void offerToElite(Individual individual) {
+        if (metrics != null && metrics.isSampling()) {
+            long start = System.nanoTime();
+            elite.offer(individual);
+            metrics.recordElite(System.nanoTime() - start);
+        } else {
+            elite.offer(individual);
+        }
+    }
+
+    /**
+     * Removes an individual from the population in O(1) and cancels its pending event.
+     * The last individual takes the freed slot, so the order of the population changes.
+     *
+     * @param individual The individual to remove.
+     */
+    public void removeIndividual(Individual individual) {
+        int index = individual.getPopulationIndex();
+        Individual last = individuals.remove(individuals.size() - 1);
+        if (last != individual) {
+            individuals.set(index, last);
+            last.setPopulationIndex(index);
+        }
+        individual.setPopulationIndex(-1);
+        scheduler.remove(individual);
+    }
+
     /**
      * Handles an epidemic by keeping the best individuals and allowing others to survive based on their comfort.
+     * Runs in O(N): the protected individuals are found in one pass, the survival draws and the compaction of
+     * the survivors happen in a second pass, and the scheduler drops every casualty in a single rebuild.
+     *
+     * @param random The random generator of the run.
+     */
+    public void handleEpidemic(RandomGenerator random) {
+        int size = individuals.size();
+        int kept = Math.min(PROTECTED, size);
+        // Move the best individuals to the front, visiting their slots in increasing order so that
+        // each swap only displaces individuals that are not protected
+        int[] slots = selectBestSlots(kept);
+        Arrays.sort(slots, 0, kept);
+        for (int i = 0; i < kept; i++) {
+            Individual best = individuals.get(slots[i]);
+            Individual other = individuals.get(i);
+            individuals.set(i, best);
+            best.setPopulationIndex(i);
+            individuals.set(slots[i], other);
+            other.setPopulationIndex(slots[i]);
+        }
+        // Allow other individuals to survive based on their comfort, compacting them after the best ones
+        int survivors = kept;
+        for (int i = kept; i < size; i++) {
+            Individual individual = individuals.get(i);
+            if (random.nextDouble() < ((2.0 / 3) * individual.getComfort())) {
+                individuals.set(survivors, individual);
+                individual.setPopulationIndex(survivors++);
+            } else {
+                individual.setPopulationIndex(-1);
+            }
+        }
+        for (int i = size - 1; i >= survivors; i--) {
+            individuals.remove(i);
+        }
+        if (survivors < size) {
+            scheduler.removeIf(individual -> individual.getPopulationIndex() < 0);
+        }
+    }
+
+    /**
+     * Finds the slots of the individuals with the highest comfort in a single pass, in O(N * count).
+     *
+     * @param count The number of slots to find, at most the population size and PROTECTED.
+     * @return The shared slot buffer, whose first count entries hold the slots by decreasing comfort.
      */
-    public void handleEpidemic() {
-        // Sort individuals by comfort and keep the best ones
-        // Comparator is a interface in JAVA
-        individuals.sort(Comparator.comparingDouble(Individual::getComfort)); // Sort individuals in ascending order of comfort
-        List<Individual> survivors = individuals.subList(0, 5);
-        // Allow other individuals to survive based on their comfort
-        for (int i = 5; i < this.individuals.size(); i++) {
-            //Math.random() returns a random number between 0.0 and 1.0
-            if (Math.random() < ((2.0 / 3) * this.individuals.get(i).getComfort())) {
-                survivors.add(this.individuals.get(i));
+    private int[] selectBestSlots(int count) {
+        int[] slots = protectedSlots;
+        int size = 0;
+        for (int slot = 0; slot < individuals.size(); slot++) {
+            double comfort = individuals.get(slot).getComfort();
+            if (size == count && (size == 0 || comfort <= individuals.get(slots[size - 1]).getComfort())) {
+                continue;
+            }
+            int i = size < count ? size++ : size - 1;
+            while (i > 0 && individuals.get(slots[i - 1]).getComfort() < comfort) {
+                slots[i] = slots[i - 1];
+                i--;
             }
+            slots[i] = slot;
         }
-        this.individuals = survivors;
+        return slots;
     }
+
     /**
      * Gets the list of individuals in the population.
      *
-     * @return The list of individuals.
+     * @return A read-only view of the individuals.
      */
     public List<Individual> getIndividuals() {
-        return individuals;
+        return individualsView;
     }
 
     /**
-     * Finds and returns the best individual in the population based on comfort level.
-     * 
-     * @return The best individual.
+     * Selects the living individuals with the highest comfort in a single pass, in O(N * count).
+     *
+     * @param count The number of individuals to select.
+     * @return The selected individuals, by decreasing comfort.
+     */
+    public List<Individual> selectBest(int count) {
+        Individual[] best = new Individual[Math.min(count, individuals.size())];
+        int size = 0;
+        for (Individual individual : individuals) {
+            double comfort = individual.getComfort();
+            if (size == best.length && (size == 0 || comfort <= best[size - 1].getComfort())) {
+                continue;
+            }
+            int i = size < best.length ? size++ : size - 1;
+            while (i > 0 && best[i - 1].getComfort() < comfort) {
+                best[i] = best[i - 1];
+                i--;
+            }
+            best[i] = individual;
+        }
+        return Arrays.asList(best);
+    }
+
+    /**
+     * Gets the record of the best distinct individuals found so far.
+     *
+     * @return The elite tracker.
      */
-    public Individual getBestIndividual() {
-        return individuals.stream()
-                          .max(Comparator.comparingDouble(Individual::getComfort))
-                          .orElse(null);
+    public EliteTracker getElite() {
+        return elite;
     }
 
     /**
-     * Gets a list of candidate distributions from the population.
-     * 
-     * @param count The number of candidate distributions to retrieve.
-     * @return A list of candidate distributions.
+     * Gets the calendar of pending events of the population.
+     *
+     * @return The event scheduler.
      */
-    public List<Individual> getCandidateDistributions(int count) {
-        Set<Map<Patrol, List<PlanetarySystem>>> seenAllocations = new HashSet<>();
-
-        return individuals.stream()
-                            .sorted(Comparator.comparingDouble(Individual::getComfort).reversed())
-                            .filter(individual -> seenAllocations.add(individual.getAllocation()))
-                            .limit(count)
-                            .collect(Collectors.toList());
+    public EventScheduler getScheduler() {
+        return scheduler;
     }
-    
+
+    /**
+     * Sets the metrics recording the time spent maintaining the elite.
+     *
+     * @param metrics The metrics of the run, or null.
+     */
+    public void setMetrics(SimulationMetrics metrics) {
+        this.metrics = metrics;
+    }
+
     /**
      * Gets the maximum population size allowed.
      * 
@@ -2,25 +2,24 @@ package src.service;
 
 import src.main.Main;
 import src.model.Individual;
-import src.model.PlanetarySystem;
-import src.model.Patrol;
 
-import java.util.*;
+import java.util.random.RandomGenerator;
 
 /**
  * Class representing a reproduce event.
  */
 public class ReproduceEvent extends Event {
-    private Random random;
+    private RandomGenerator random;
+    private int[] tmp_system = new int[0]; // permutation of the system ids, reused between events
+    private FitnessCache fitnessCache;
+    private LocalSearch localSearch;
 
     /**
-     * Constructs a ReproduceEvent with the given time and Random instance.
+     * Constructs a ReproduceEvent with the given random generator.
      *
-     * @param time The time at which the event occurs.
-     * @param random The Random instance for generating random values.
+     * @param random The random generator of the run.
      */
-    public ReproduceEvent(double time, Random random) {
-        super(time);
+    public ReproduceEvent(RandomGenerator random) {
         this.random = random;
     }
 
@@ -33,30 +32,120 @@ public class ReproduceEvent extends Event {
      */
     @Override
     public void execute(Individual individual, double currentTime, Main main) {
-        Map<Patrol, List<PlanetarySystem>> newAllocation = new HashMap<>(individual.getAllocation());
-        int numberOfSystemsToRemove = (int) Math.floor((1 - individual.getComfort()) * main.getSystems().size());
-        
-        List<PlanetarySystem> systems_to_remove = new ArrayList<>();
-        List<PlanetarySystem> tmp_system = new ArrayList<>(main.getSystems());
+        int numberOfSystems = individual.getGenome().length;
+        int numberOfSystemsToRemove = (int) Math.floor((1 - individual.getComfort()) * numberOfSystems);
+
+        // Partial Fisher-Yates shuffle: the first systems of the pool are the ones to reassign.
+        // Any permutation is a valid starting point, so the pool is only built once.
+        if (tmp_system.length != numberOfSystems) {
+            tmp_system = new int[numberOfSystems];
+            for (int i = 0; i < numberOfSystems; i++) {
+                tmp_system[i] = i;
+            }
+        }
         for (int i = 0; i < numberOfSystemsToRemove; i++) {
-            int randomIndex = random.nextInt(tmp_system.size());
-            systems_to_remove.add(tmp_system.get(randomIndex));
-            tmp_system.remove(randomIndex);
+            int randomIndex = i + random.nextInt(numberOfSystems - i);
+            int system = tmp_system[randomIndex];
+            tmp_system[randomIndex] = tmp_system[i];
+            tmp_system[i] = system;
         }
 
-        for (Patrol patrol : newAllocation.keySet()) {
-            newAllocation.get(patrol).removeAll(systems_to_remove);
+        // When few systems are reassigned, the child starts as a copy of the parent and its loads and
+        // fingerprint are updated per system in O(log n); otherwise they are rebuilt from the genome in O(m).
+        int numberOfPatrols = main.getPatrols().size();
+        int depth = 32 - Integer.numberOfLeadingZeros(numberOfPatrols);
+        Individual newIndividual;
+        if ((long) numberOfSystemsToRemove * depth < numberOfSystems) {
+            newIndividual = individual.deepCopy();
+            int[] newGenome = newIndividual.getGenome();
+            for (int i = 0; i < numberOfSystemsToRemove; i++) {
+                int system = tmp_system[i];
+                int patrol = random.nextInt(numberOfPatrols);
+                if (newGenome[system] != patrol) {
+                    newIndividual.moveSystem(system, patrol);
+                }
+            }
+            newIndividual.setPolicingTime(newIndividual.calculatePolicingTime());
+            newIndividual.setComfort(newIndividual.calculateComfort());
+            if (fitnessCache != null) {
+                fitnessCache.put(newIndividual.getFingerprint(), newIndividual.calculatePolicingTime());
+            }
+        } else if (fitnessCache != null) {
+            // The fingerprint of the child follows from the parent's, so a remembered allocation
+            // skips the O(m) load computation, which is deferred until the child is mutated.
+            int[] newGenome = individual.getGenome().clone();
+            long fingerprint = individual.getFingerprint();
+            for (int i = 0; i < numberOfSystemsToRemove; i++) {
+                int system = tmp_system[i];
+                int patrol = random.nextInt(numberOfPatrols);
+                fingerprint ^= Individual.zobristKey(system, newGenome[system]) ^ Individual.zobristKey(system, patrol);
+                newGenome[system] = patrol;
+            }
+            int policingTime = fitnessCache.get(fingerprint);
+            if (policingTime >= 0) {
+                newIndividual = new Individual(newGenome, main.getCosts(), main.getTmin(), fingerprint, policingTime);
+            } else {
+                newIndividual = new Individual(newGenome, main.getCosts(), main.getTmin());
+                fitnessCache.put(fingerprint, newIndividual.calculatePolicingTime());
+            }
+        } else {
+            int[] newGenome = individual.getGenome().clone();
+            for (int i = 0; i < numberOfSystemsToRemove; i++) {
+                newGenome[tmp_system[i]] = random.nextInt(numberOfPatrols);
+            }
+            newIndividual = new Individual(newGenome, main.getCosts(), main.getTmin());
         }
-
-        for (PlanetarySystem system : systems_to_remove) {
-            Patrol randomPatrol = main.getPatrols().get(random.nextInt(main.getPatrols().size()));
-            newAllocation.get(randomPatrol).add(system);
+        if (localSearch != null) {
+            localSearch.apply(newIndividual, random);
         }
-
-        Individual newIndividual = new Individual(newAllocation, main.getTmin());
         main.getPopulation().addIndividual(newIndividual);
         main.setNextEvent(currentTime, newIndividual);
         main.setNextEvent(currentTime, individual);
 
     }
+
+    /**
+     * Gets the permutation of the system ids left by the previous events, which the next event shuffles further.
+     *
+     * @return The permutation, empty before the first event.
+     */
+    public int[] getPermutation() {
+        return tmp_system;
+    }
+
+    /**
+     * Restores a permutation returned by getPermutation, so that the following events draw the same systems.
+     *
+     * @param permutation The permutation of the system ids.
+     */
+    public void setPermutation(int[] permutation) {
+        this.tmp_system = permutation;
+    }
+
+    /**
+     * Sets the cache remembering the policing time of recently created allocations.
+     *
+     * @param fitnessCache The cache, or null to compute every policing time.
+     */
+    public void setFitnessCache(FitnessCache fitnessCache) {
+        this.fitnessCache = fitnessCache;
+    }
+
+    /**
+     * Sets the local search applied to the offspring before they join the population.
+     *
+     * @param localSearch The local search, or null to keep the offspring as drawn.
+     */
+    public void setLocalSearch(LocalSearch localSearch) {
+        this.localSearch = localSearch;
+    }
+
+    /**
+     * Gets the local search applied to the offspring.
+     *
+     * @return The local search, or null if the offspring are kept as drawn.
+     */
+    public LocalSearch getLocalSearch() {
+        return localSearch;
+    }
 }
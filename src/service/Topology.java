@@ -0,0 +1,11 @@
+package src.service;
+
+/**
+ * Which islands of an island model receive the migrants of an island.
+ */
+public enum Topology {
+    /** Island i sends to island i + 1, and the last one to the first. */
+    RING,
+    /** Every island sends to all the others. */
+    FULL
+}
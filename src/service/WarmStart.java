@@ -0,0 +1,174 @@
+package src.service;
+
+import src.model.CostMatrix;
+import src.model.Individual;
+import src.util.SplitMix64;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.random.RandomGenerator;
+import java.util.stream.IntStream;
+
+/**
+ * Constructive heuristics that seed part of the initial population with good allocations.
+ * <p>
+ * The first seeded individual assigns every system to its cheapest patrol, the second is built
+ * LPT-style, taking the systems by decreasing cheapest cost and giving each to the patrol that
+ * would finish it first, and the others are randomized greedy allocations: systems in random order,
+ * each given to a random patrol among those that would finish within 20% of the best.
+ * Each individual is built independently, in parallel when the work is large enough.
+ */
+public class WarmStart {
+    private static final double ALPHA = 0.2; // tolerance of the randomized greedy candidate list
+    private static final long PARALLEL_WORK = 1 << 20; // patrol-system evaluations above which construction is parallel
+
+    private WarmStart() {
+    }
+
+    /**
+     * Builds seeded individuals, in parallel if count * n * m is large.
+     *
+     * @param count The number of individuals.
+     * @param costs The time required by each patrol to pacify each system.
+     * @param tmin The minimum patrol time.
+     * @param random The generator of the run, from which one seed per individual is drawn.
+     * @return The individuals.
+     */
+    public static List<Individual> build(int count, CostMatrix costs, double tmin, RandomGenerator random) {
+        return build(count, costs, tmin, random, (long) count * costs.getN() * costs.getM() >= PARALLEL_WORK);
+    }
+
+    /**
+     * Builds seeded individuals. The result does not depend on whether the construction is parallel.
+     *
+     * @param count The number of individuals.
+     * @param costs The time required by each patrol to pacify each system.
+     * @param tmin The minimum patrol time.
+     * @param random The generator of the run, from which one seed per individual is drawn.
+     * @param parallel Whether to build the individuals in parallel.
+     * @return The individuals.
+     */
+    public static List<Individual> build(int count, CostMatrix costs, double tmin, RandomGenerator random, boolean parallel) {
+        long[] seeds = new long[count];
+        for (int i = 0; i < count; i++) {
+            seeds[i] = random.nextLong();
+        }
+        IntStream indices = IntStream.range(0, count);
+        if (parallel) {
+            indices = indices.parallel();
+        }
+        return Arrays.asList(indices.mapToObj(i -> new Individual(genome(i, costs, seeds[i]), costs, tmin))
+                                    .toArray(Individual[]::new));
+    }
+
+    /**
+     * Builds the genome of the i-th seeded individual.
+     *
+     * @param i The index of the individual.
+     * @param costs The cost matrix.
+     * @param seed The seed of the randomized greedy construction.
+     * @return The genome.
+     */
+    private static int[] genome(int i, CostMatrix costs, long seed) {
+        switch (i) {
+            case 0:
+                return greedy(costs);
+            case 1:
+                return balanced(costs);
+            default:
+                return randomizedGreedy(costs, new SplitMix64(seed));
+        }
+    }
+
+    /**
+     * Assigns every system to the patrol that pacifies it fastest.
+     *
+     * @param costs The cost matrix.
+     * @return The genome.
+     */
+    static int[] greedy(CostMatrix costs) {
+        int[] genome = new int[costs.getM()];
+        for (int s = 0; s < genome.length; s++) {
+            int best = 0;
+            for (int p = 1; p < costs.getN(); p++) {
+                if (costs.get(p, s) < costs.get(best, s)) {
+                    best = p;
+                }
+            }
+            genome[s] = best;
+        }
+        return genome;
+    }
+
+    /**
+     * Takes the systems by decreasing cheapest cost and gives each to the patrol with the smallest
+     * load once it is added.
+     *
+     * @param costs The cost matrix.
+     * @return The genome.
+     */
+    static int[] balanced(CostMatrix costs) {
+        int m = costs.getM();
+        long[] keys = new long[m]; // cheapest cost in the high bits, system id in the low bits
+        for (int s = 0; s < m; s++) {
+            int cheapest = Integer.MAX_VALUE;
+            for (int p = 0; p < costs.getN(); p++) {
+                cheapest = Math.min(cheapest, costs.get(p, s));
+            }
+            keys[s] = ((long) cheapest << 32) | s;
+        }
+        Arrays.sort(keys);
+        int[] genome = new int[m];
+        long[] loads = new long[costs.getN()];
+        for (int k = m - 1; k >= 0; k--) {
+            int s = (int) keys[k];
+            int best = 0;
+            for (int p = 1; p < loads.length; p++) {
+                if (loads[p] + costs.get(p, s) < loads[best] + costs.get(best, s)) {
+                    best = p;
+                }
+            }
+            genome[s] = best;
+            loads[best] += costs.get(best, s);
+        }
+        return genome;
+    }
+
+    /**
+     * Takes the systems in random order and gives each to a random patrol among those whose load
+     * once it is added is within 20% of the smallest.
+     *
+     * @param costs The cost matrix.
+     * @param random The generator of this construction.
+     * @return The genome.
+     */
+    static int[] randomizedGreedy(CostMatrix costs, RandomGenerator random) {
+        int n = costs.getN();
+        int m = costs.getM();
+        int[] order = new int[m];
+        for (int s = 0; s < m; s++) {
+            int j = random.nextInt(s + 1);
+            order[s] = order[j];
+            order[j] = s;
+        }
+        int[] genome = new int[m];
+        long[] loads = new long[n];
+        for (int s : order) {
+            long best = Long.MAX_VALUE;
+            for (int p = 0; p < n; p++) {
+                best = Math.min(best, loads[p] + costs.get(p, s));
+            }
+            double limit = best * (1 + ALPHA);
+            int chosen = -1;
+            int candidates = 0;
+            for (int p = 0; p < n; p++) {
+                if (loads[p] + costs.get(p, s) <= limit && random.nextInt(++candidates) == 0) {
+                    chosen = p;
+                }
+            }
+            genome[s] = chosen;
+            loads[chosen] += costs.get(chosen, s);
+        }
+        return genome;
+    }
+}
@@ -0,0 +1,114 @@
+package src.util;
+
+import src.service.Observation;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Sink handing observations to a background thread that formats and writes them with another sink.
+ * <p>
+ * Observations only hold snapshots, so they can be written after the run has moved on. The
+ * queue is bounded: the simulation only waits when the writer has fallen a full queue behind.
+ * A write failure is reported by the next call to accept or close. An interrupt neither drops an
+ * accepted observation nor closes the underlying sink while the writer may still use it: the
+ * caller keeps waiting, and its interrupt flag is restored afterwards.
+ */
+public class AsyncObservationSink implements ObservationSink {
+    private static final Observation END = new Observation(0, 0, 0, 0, 0, null, null, 0);
+
+    private final ObservationSink sink;
+    private final BlockingQueue<Observation> queue;
+    private final Thread writer;
+    private volatile RuntimeException failure;
+
+    /**
+     * Constructs an AsyncObservationSink and starts its writer thread.
+     *
+     * @param sink The sink doing the writing.
+     * @param capacity The maximum number of observations waiting to be written.
+     */
+    public AsyncObservationSink(ObservationSink sink, int capacity) {
+        this.sink = sink;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.writer = new Thread(this::drain, "observation-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    @Override
+    public void accept(Observation observation) {
+        if (failure != null) {
+            throw failure;
+        }
+        enqueue(observation);
+    }
+
+    /**
+     * Waits until every queued observation is written, then closes the underlying sink.
+     *
+     * @throws IOException If a write or the closing failed.
+     */
+    @Override
+    public void close() throws IOException {
+        enqueue(END);
+        boolean interrupted = false;
+        while (writer.isAlive()) {
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        sink.close();
+        if (failure instanceof UncheckedIOException) {
+            throw ((UncheckedIOException) failure).getCause();
+        } else if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Queues an observation, waiting for room even if interrupted, then restores the interrupt flag.
+     *
+     * @param observation The observation, or the end marker.
+     */
+    private void enqueue(Observation observation) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                queue.put(observation);
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Writes queued observations until the end marker.
+     */
+    private void drain() {
+        try {
+            for (Observation observation = queue.take(); observation != END; observation = queue.take()) {
+                if (failure == null) {
+                    try {
+                        sink.accept(observation);
+                    } catch (RuntimeException e) {
+                        failure = e;
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,363 @@
+package src.util;
+
+import src.model.CostMatrix;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Instance stored in the versioned binary format, which is memory-mapped and used without parsing.
+ * <p>
+ * All fields are little-endian. The file starts with a fixed header:
+ * <pre>
+ *  0  int    magic "PSIM"
+ *  4  int    format version
+ *  8  int    bytes per cost value: 2 (unsigned) or 4 (signed)
+ * 12  int    layout: 0 by patrol, 1 by system
+ * 16  int    n, m, tau, nu, nu max
+ * 36  int    reserved
+ * 40  double mu, rho, delta
+ * 64  long   size and modification time of the text file it was converted from, 0 if none
+ * 80         reserved up to the end of the header
+ * </pre>
+ * followed by the n * m cost values in the given layout.
+ */
+public class BinaryInstance {
+    private static final int MAGIC = 'P' | 'S' << 8 | 'I' << 16 | 'M' << 24;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 96;
+    private static final long WINDOW_SIZE = 1L << 30;
+    private static final String SIDECAR_SUFFIX = ".bin";
+
+    private final int n, m, tau, nu, nuMax;
+    private final double mu, rho, delta;
+    private final CostMatrix costs;
+    private final long sourceSize, sourceModified;
+
+    /**
+     * Constructs a BinaryInstance.
+     *
+     * @param n The number of patrols.
+     * @param m The number of systems.
+     * @param tau The final instant of evolution.
+     * @param nu The initial population size.
+     * @param nuMax The maximum population size.
+     * @param mu The mutation rate.
+     * @param rho The reproduction rate.
+     * @param delta The comfort threshold.
+     * @param costs The time required by each patrol to pacify each system.
+     * @param sourceSize The size of the text file the instance was read from, 0 if none.
+     * @param sourceModified The modification time in milliseconds of that file, 0 if none.
+     */
+    public BinaryInstance(int n, int m, int tau, int nu, int nuMax, double mu, double rho, double delta,
+                          CostMatrix costs, long sourceSize, long sourceModified) {
+        this.n = n;
+        this.m = m;
+        this.tau = tau;
+        this.nu = nu;
+        this.nuMax = nuMax;
+        this.mu = mu;
+        this.rho = rho;
+        this.delta = delta;
+        this.costs = costs;
+        this.sourceSize = sourceSize;
+        this.sourceModified = sourceModified;
+    }
+
+    /**
+     * Checks whether a file starts with the magic number of the binary format.
+     *
+     * @param path The file to check.
+     * @return True if the file is a binary instance.
+     * @throws IOException If the file cannot be read.
+     */
+    public static boolean isBinary(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+            while (magic.hasRemaining() && channel.read(magic) >= 0) {
+                // keep reading until 4 bytes or the end of the file
+            }
+            return !magic.hasRemaining() && magic.getInt(0) == MAGIC;
+        }
+    }
+
+    /**
+     * Reads a binary instance. Cost matrices up to 2 GB are mapped and used in place, larger
+     * ones are copied window by window into an in-memory matrix.
+     *
+     * @param path The binary file.
+     * @return The instance.
+     * @throws IOException If the file cannot be read or is not a valid binary instance.
+     */
+    public static BinaryInstance read(Path path) throws IOException {
+        String name = path.toString();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                throw new InstanceFormatException(name, "truncated header");
+            }
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt(0) != MAGIC) {
+                throw new InstanceFormatException(name, "not a binary instance");
+            }
+            if (header.getInt(4) != VERSION) {
+                throw new InstanceFormatException(name, "unsupported format version " + header.getInt(4));
+            }
+            int elementBytes = header.getInt(8);
+            int layoutCode = header.getInt(12);
+            int n = header.getInt(16);
+            int m = header.getInt(20);
+            if ((elementBytes != 2 && elementBytes != 4) || (layoutCode != 0 && layoutCode != 1) || n <= 0 || m <= 0) {
+                throw new InstanceFormatException(name, "corrupted header");
+            }
+            CostMatrix.Layout layout = layoutCode == 0 ? CostMatrix.Layout.BY_PATROL : CostMatrix.Layout.BY_SYSTEM;
+            long matrixBytes = (long) n * m * elementBytes;
+            if (channel.size() != HEADER_SIZE + matrixBytes) {
+                throw new InstanceFormatException(name, "expected " + (HEADER_SIZE + matrixBytes) + " bytes, found " + channel.size());
+            }
+            CostMatrix costs;
+            if (matrixBytes <= Integer.MAX_VALUE) {
+                costs = CostMatrix.wrap(n, m, layout, channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, matrixBytes), elementBytes);
+            } else {
+                costs = copyMatrix(channel, n, m, layout, elementBytes);
+            }
+            return new BinaryInstance(n, m, header.getInt(24), header.getInt(28), header.getInt(32),
+                                      header.getDouble(40), header.getDouble(48), header.getDouble(56),
+                                      costs, header.getLong(64), header.getLong(72));
+        }
+    }
+
+    /**
+     * Copies a cost matrix too large for a single mapping into memory.
+     *
+     * @param channel The open binary file.
+     * @param n The number of patrols.
+     * @param m The number of systems.
+     * @param layout The layout of the values in the file.
+     * @param elementBytes The size of a value.
+     * @return The cost matrix.
+     * @throws IOException If the file cannot be mapped.
+     */
+    private static CostMatrix copyMatrix(FileChannel channel, int n, int m, CostMatrix.Layout layout, int elementBytes)
+            throws IOException {
+        CostMatrix.Builder builder = new CostMatrix.Builder(n, m, layout);
+        int columns = layout == CostMatrix.Layout.BY_SYSTEM ? n : m;
+        long total = (long) n * m;
+        long index = 0;
+        while (index < total) {
+            long count = Math.min(WINDOW_SIZE / elementBytes, total - index);
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + index * elementBytes, count * elementBytes);
+            window.order(ByteOrder.LITTLE_ENDIAN);
+            for (int i = 0; i < count; i++, index++) {
+                int value = elementBytes == 4 ? window.getInt(i << 2) : window.getChar(i << 1);
+                int row = (int) (index / columns);
+                int column = (int) (index % columns);
+                if (layout == CostMatrix.Layout.BY_SYSTEM) {
+                    builder.set(column, row, value);
+                } else {
+                    builder.set(row, column, value);
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Writes the instance in the binary format. The file is written under a temporary name and
+     * then moved into place, so that concurrent readers never see a partial file.
+     *
+     * @param path The binary file to write.
+     * @throws IOException If the file cannot be written.
+     */
+    public void write(Path path) throws IOException {
+        CostMatrix.Layout layout = costs.getLayout();
+        int elementBytes = fitsInChar() ? 2 : 4;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(0, MAGIC).putInt(4, VERSION).putInt(8, elementBytes)
+              .putInt(12, layout == CostMatrix.Layout.BY_PATROL ? 0 : 1)
+              .putInt(16, n).putInt(20, m).putInt(24, tau).putInt(28, nu).putInt(32, nuMax)
+              .putDouble(40, mu).putDouble(48, rho).putDouble(56, delta)
+              .putLong(64, sourceSize).putLong(72, sourceModified);
+        Path temporary = path.resolveSibling(path.getFileName() + "." + ProcessHandle.current().pid()
+                                             + "." + Thread.currentThread().getId() + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE, StandardOpenOption.CREATE_NEW)) {
+                writeFully(channel, header);
+                ByteBuffer block = ByteBuffer.allocate(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+                int rows = layout == CostMatrix.Layout.BY_SYSTEM ? m : n;
+                int columns = layout == CostMatrix.Layout.BY_SYSTEM ? n : m;
+                for (int row = 0; row < rows; row++) {
+                    for (int column = 0; column < columns; column++) {
+                        int value = layout == CostMatrix.Layout.BY_SYSTEM ? costs.get(column, row) : costs.get(row, column);
+                        if (block.remaining() < elementBytes) {
+                            block.flip();
+                            writeFully(channel, block);
+                            block.clear();
+                        }
+                        if (elementBytes == 2) {
+                            block.putChar((char) value);
+                        } else {
+                            block.putInt(value);
+                        }
+                    }
+                }
+                block.flip();
+                writeFully(channel, block);
+            }
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Gets the sidecar cache file of a text instance.
+     *
+     * @param source The text instance file.
+     * @return The path of its binary cache, next to it.
+     */
+    public static Path sidecarOf(Path source) {
+        return source.resolveSibling(source.getFileName() + SIDECAR_SUFFIX);
+    }
+
+    /**
+     * Reads the sidecar cache of a text instance if it exists and was converted from the
+     * current version of the file.
+     *
+     * @param source The text instance file.
+     * @return The cached instance, or null if there is no valid or readable cache.
+     * @throws IOException If the attributes of the text file cannot be read.
+     */
+    public static BinaryInstance readCached(Path source) throws IOException {
+        long size = Files.size(source);
+        long modified = Files.getLastModifiedTime(source).toMillis();
+        try {
+            BinaryInstance cached = read(sidecarOf(source));
+            return cached.sourceSize == size && cached.sourceModified == modified ? cached : null;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            // an unreadable or corrupted cache is a miss: the text file is parsed instead
+            System.err.println("Ignoring instance cache: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Checks whether every cost fits in an unsigned 16-bit value.
+     *
+     * @return True if 2-byte values are enough.
+     */
+    private boolean fitsInChar() {
+        for (int p = 0; p < n; p++) {
+            for (int s = 0; s < m; s++) {
+                int value = costs.get(p, s);
+                if (value < Character.MIN_VALUE || value > Character.MAX_VALUE) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Writes the whole buffer to the channel.
+     *
+     * @param channel The channel.
+     * @param buffer The bytes to write, from position to limit.
+     * @throws IOException If the write fails.
+     */
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Gets the number of patrols.
+     *
+     * @return The number of patrols.
+     */
+    public int getN() {
+        return n;
+    }
+
+    /**
+     * Gets the number of systems.
+     *
+     * @return The number of systems.
+     */
+    public int getM() {
+        return m;
+    }
+
+    /**
+     * Gets the final instant of evolution.
+     *
+     * @return The final instant of evolution.
+     */
+    public int getTau() {
+        return tau;
+    }
+
+    /**
+     * Gets the initial population size.
+     *
+     * @return The initial population size.
+     */
+    public int getNu() {
+        return nu;
+    }
+
+    /**
+     * Gets the maximum population size.
+     *
+     * @return The maximum population size.
+     */
+    public int getNuMax() {
+        return nuMax;
+    }
+
+    /**
+     * Gets the mutation rate.
+     *
+     * @return The mutation rate.
+     */
+    public double getMu() {
+        return mu;
+    }
+
+    /**
+     * Gets the reproduction rate.
+     *
+     * @return The reproduction rate.
+     */
+    public double getRho() {
+        return rho;
+    }
+
+    /**
+     * Gets the comfort threshold.
+     *
+     * @return The comfort threshold.
+     */
+    public double getDelta() {
+        return delta;
+    }
+
+    /**
+     * Gets the time required by each patrol to pacify each system.
+     *
+     * @return The time required by each patrol to pacify each system.
+     */
+    public CostMatrix getCosts() {
+        return costs;
+    }
+}
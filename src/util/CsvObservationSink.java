@@ -0,0 +1,57 @@
+package src.util;
+
+import src.model.Individual;
+import src.service.Observation;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Sink writing one CSV row per reported distribution: rank 0 is the best one, ranks 1 to 5 the
+ * other candidates. The allocation column lists the patrol of each system, separated by spaces.
+ */
+public class CsvObservationSink extends WriterObservationSink {
+    private boolean headerWritten;
+
+    /**
+     * Constructs a CsvObservationSink.
+     *
+     * @param out The destination of the text.
+     * @param closeOutput True to close the destination with the sink, false to only flush it.
+     */
+    public CsvObservationSink(Writer out, boolean closeOutput) {
+        super(out, closeOutput);
+    }
+
+    @Override
+    protected void write(Observation observation) throws IOException {
+        if (!headerWritten) {
+            out.write("number,time,events,populationSize,epidemics,lowerBound,rank,policingTime,comfort,allocation\n");
+            headerWritten = true;
+        }
+        writeRow(observation, 0, observation.getBest());
+        List<Individual> candidates = observation.getCandidates();
+        int numberOfCandidates = Math.min(5, candidates.size() - 1);
+        for (int i = 1; i <= numberOfCandidates; i++) {
+            writeRow(observation, i, candidates.get(i));
+        }
+    }
+
+    /**
+     * Writes the row of one distribution.
+     *
+     * @param observation The observation.
+     * @param rank The rank of the distribution.
+     * @param individual The distribution.
+     * @throws IOException If the output fails.
+     */
+    private void writeRow(Observation observation, int rank, Individual individual) throws IOException {
+        out.write(observation.getNumber() + "," + observation.getTime() + "," + observation.getEvents() + ","
+                  + observation.getPopulationSize() + "," + observation.getEpidemics() + ","
+                  + observation.getLowerBound() + "," + rank + ","
+                  + individual.getPolicingTime() + "," + individual.getComfort() + ",");
+        writeGenome(individual, ' ');
+        out.write('\n');
+    }
+}
@@ -0,0 +1,52 @@
+package src.util;
+
+import src.model.Individual;
+import src.service.Observation;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Sink writing the human-readable observation report.
+ */
+public class HumanObservationSink extends WriterObservationSink {
+
+    /**
+     * Constructs a HumanObservationSink.
+     *
+     * @param out The destination of the text.
+     * @param closeOutput True to close the destination with the sink, false to only flush it.
+     */
+    public HumanObservationSink(Writer out, boolean closeOutput) {
+        super(out, closeOutput);
+    }
+
+    @Override
+    protected void write(Observation observation) throws IOException {
+        Individual bestIndividual = observation.getBest();
+        List<Individual> candidateDistributions = observation.getCandidates();
+        out.write("Observation number: " + observation.getNumber() + "\n");
+        out.write("Present instant: " + observation.getTime() + "\n");
+        out.write("Number of realized events: " + observation.getEvents() + "\n");
+        out.write("Population size: " + observation.getPopulationSize() + "\n");
+        out.write("Number of epidemics: " + observation.getEpidemics() + "\n");
+        out.write("Best distribution of the patrols: ");
+        writeAllocation(bestIndividual);
+        out.write("\nEmpire policing time: " + bestIndividual.getPolicingTime() + "\n");
+        out.write("Comfort: " + bestIndividual.getComfort() + "\n");
+        if (observation.getLowerBound() > 0) {
+            out.write("Lower bound: " + observation.getLowerBound() + " (optimality gap: "
+                      + String.format("%.2f%%", 100 * observation.getOptimalityGap()) + ")\n");
+        }
+
+        int numberOfCandidates = Math.min(5, candidateDistributions.size() - 1);
+        for (int i = 1; i <= numberOfCandidates; i++) { // start at i=1 to ignore the best
+            Individual individual = candidateDistributions.get(i);
+            out.write("otherdist" + i + ": ");
+            writeAllocation(individual);
+            out.write(" : " + individual.getPolicingTime() + " : " + individual.getComfort() + "\n");
+        }
+        out.write('\n');
+    }
+}
@@ -0,0 +1,30 @@
+package src.util;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Command-line tool converting a text instance file to the binary instance format.
+ * <p>
+ * Usage: {@code java -cp project.jar src.util.InstanceConverter <input> [output]}. The output
+ * defaults to the sidecar cache of the input, so a later run with {@code --cache on} picks it up.
+ */
+public class InstanceConverter {
+
+    public static void main(String[] args) {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println("Usage: InstanceConverter <input> [output]");
+            System.exit(2);
+        }
+        Path input = Path.of(args[0]);
+        Path output = args.length == 2 ? Path.of(args[1]) : BinaryInstance.sidecarOf(input);
+        try {
+            Parser parser = new Parser(new String[]{"-f", args[0], "--seed", "0"});
+            parser.toBinaryInstance(input).write(output);
+            System.out.println(input + " -> " + output);
+        } catch (IllegalArgumentException | IOException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package src.util;
+
+import java.io.IOException;
+
+/**
+ * Signals malformed content in an instance file, with the position where it was found.
+ */
+public class InstanceFormatException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    private final long line;
+    private final long column;
+
+    /**
+     * Constructs an InstanceFormatException.
+     *
+     * @param file The name of the file being read.
+     * @param line The line of the error, starting at 1.
+     * @param column The column of the error, starting at 1.
+     * @param message The description of the error.
+     */
+    public InstanceFormatException(String file, long line, long column, String message) {
+        super(file + ":" + line + ":" + column + ": " + message);
+        this.line = line;
+        this.column = column;
+    }
+
+    /**
+     * Constructs an InstanceFormatException for a file without lines, such as a binary instance.
+     *
+     * @param file The name of the file being read.
+     * @param message The description of the error.
+     */
+    public InstanceFormatException(String file, String message) {
+        super(file + ": " + message);
+        this.line = 0;
+        this.column = 0;
+    }
+
+    /**
+     * Gets the line of the error.
+     *
+     * @return The line, starting at 1, or 0 for a binary file.
+     */
+    public long getLine() {
+        return line;
+    }
+
+    /**
+     * Gets the column of the error.
+     *
+     * @return The column, starting at 1, or 0 for a binary file.
+     */
+    public long getColumn() {
+        return column;
+    }
+}
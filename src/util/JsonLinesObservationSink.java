@@ -0,0 +1,64 @@
+package src.util;
+
+import src.model.Individual;
+import src.service.Observation;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Sink writing each observation as one JSON object per line. The distributions array starts with
+ * the best one; each allocation lists the patrol of each system.
+ */
+public class JsonLinesObservationSink extends WriterObservationSink {
+
+    /**
+     * Constructs a JsonLinesObservationSink.
+     *
+     * @param out The destination of the text.
+     * @param closeOutput True to close the destination with the sink, false to only flush it.
+     */
+    public JsonLinesObservationSink(Writer out, boolean closeOutput) {
+        super(out, closeOutput);
+    }
+
+    @Override
+    protected void write(Observation observation) throws IOException {
+        out.write("{\"number\":" + observation.getNumber() + ",\"time\":" + number(observation.getTime())
+                  + ",\"events\":" + observation.getEvents() + ",\"populationSize\":" + observation.getPopulationSize()
+                  + ",\"epidemics\":" + observation.getEpidemics() + ",\"lowerBound\":" + observation.getLowerBound()
+                  + ",\"distributions\":[");
+        writeDistribution(observation.getBest());
+        List<Individual> candidates = observation.getCandidates();
+        int numberOfCandidates = Math.min(5, candidates.size() - 1);
+        for (int i = 1; i <= numberOfCandidates; i++) {
+            out.write(',');
+            writeDistribution(candidates.get(i));
+        }
+        out.write("]}\n");
+    }
+
+    /**
+     * Writes one distribution object.
+     *
+     * @param individual The distribution.
+     * @throws IOException If the output fails.
+     */
+    private void writeDistribution(Individual individual) throws IOException {
+        out.write("{\"policingTime\":" + number(individual.getPolicingTime()) + ",\"comfort\":" + number(individual.getComfort())
+                  + ",\"allocation\":[");
+        writeGenome(individual, ',');
+        out.write("]}");
+    }
+
+    /**
+     * Formats a JSON number, or null for NaN and infinities, which JSON cannot represent.
+     *
+     * @param value The value.
+     * @return The JSON text of the value.
+     */
+    private static String number(double value) {
+        return Double.isFinite(value) ? Double.toString(value) : "null";
+    }
+}
@@ -0,0 +1,226 @@
+package src.util;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Tokenizer reading whitespace-separated numbers straight from a memory-mapped file.
+ * <p>
+ * The file is mapped in windows of at most {@code chunkSize} bytes, so files larger than
+ * the 2 GB limit of a single mapping are read window by window; a token may span two
+ * windows. Integers are accumulated from the bytes without creating strings, and every
+ * error reports the line and column of the offending token.
+ */
+public class MappedInputReader implements AutoCloseable {
+    private static final long DEFAULT_CHUNK_SIZE = 1L << 30;
+    private static final int EOF = -1;
+
+    private final String name;
+    private final FileChannel channel;
+    private final long fileSize;
+    private final long chunkSize;
+    private MappedByteBuffer buffer;
+    private long chunkStart; // file offset of buffer position 0
+    private int position;
+    private int limit;
+    private long line = 1;
+    private long lineStart; // file offset of the first byte of the current line
+    private final byte[] token = new byte[64];
+
+    /**
+     * Opens and maps the file.
+     *
+     * @param path The path of the file.
+     * @throws IOException If the file cannot be opened or mapped.
+     */
+    public MappedInputReader(Path path) throws IOException {
+        this(path, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Opens and maps the file in windows of the given size.
+     *
+     * @param path The path of the file.
+     * @param chunkSize The size of a mapped window in bytes, at most Integer.MAX_VALUE.
+     * @throws IOException If the file cannot be opened or mapped.
+     */
+    MappedInputReader(Path path, long chunkSize) throws IOException {
+        this.name = path.toString();
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.fileSize = channel.size();
+        this.chunkSize = chunkSize;
+        this.chunkStart = 0;
+        map(0);
+    }
+
+    /**
+     * Reads the next token as an int.
+     *
+     * @return The value of the token.
+     * @throws InstanceFormatException If the token is missing, is not an integer or overflows an int.
+     */
+    public int nextInt() throws InstanceFormatException {
+        int b = skipWhitespace();
+        long start = offset() - 1;
+        if (b == EOF) {
+            throw error(start + 1, "unexpected end of file, expected an integer");
+        }
+        boolean negative = b == '-';
+        if (negative || b == '+') {
+            b = read();
+        }
+        if (b < '0' || b > '9') {
+            throw error(start, "expected an integer");
+        }
+        long value = 0;
+        do {
+            value = value * 10 + (b - '0');
+            if (value > (long) Integer.MAX_VALUE + 1) {
+                throw error(start, "integer out of range");
+            }
+            b = read();
+        } while (b >= '0' && b <= '9');
+        if (b != EOF && !isWhitespace(b)) {
+            throw error(start, "expected an integer");
+        }
+        consumed(b);
+        value = negative ? -value : value;
+        if (value > Integer.MAX_VALUE) {
+            throw error(start, "integer out of range");
+        }
+        return (int) value;
+    }
+
+    /**
+     * Reads the next token as a double.
+     *
+     * @return The value of the token.
+     * @throws InstanceFormatException If the token is missing or is not a number.
+     */
+    public double nextDouble() throws InstanceFormatException {
+        int b = skipWhitespace();
+        long start = offset() - 1;
+        if (b == EOF) {
+            throw error(start + 1, "unexpected end of file, expected a number");
+        }
+        int length = 0;
+        do {
+            if (length == token.length) {
+                throw error(start, "expected a number");
+            }
+            token[length++] = (byte) b;
+            b = read();
+        } while (b != EOF && !isWhitespace(b));
+        consumed(b);
+        try {
+            return Double.parseDouble(new String(token, 0, length, StandardCharsets.ISO_8859_1));
+        } catch (NumberFormatException e) {
+            throw error(start, "expected a number");
+        }
+    }
+
+    /**
+     * Closes the file. The mapped windows are released by the garbage collector.
+     *
+     * @throws IOException If the channel cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        buffer = null;
+        channel.close();
+    }
+
+    /**
+     * Skips whitespace and returns the first byte of the next token.
+     *
+     * @return The first byte of the token, or EOF.
+     */
+    private int skipWhitespace() {
+        int b = read();
+        while (b != EOF && isWhitespace(b)) {
+            consumed(b);
+            b = read();
+        }
+        return b;
+    }
+
+    /**
+     * Reads the next byte, mapping the next window when the current one is exhausted.
+     *
+     * @return The byte, or EOF at the end of the file.
+     */
+    private int read() {
+        if (position == limit) {
+            long next = chunkStart + limit;
+            if (next >= fileSize) {
+                return EOF;
+            }
+            try {
+                map(next);
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot map " + name + " at offset " + next, e);
+            }
+        }
+        return buffer.get(position++) & 0xFF; // unsigned, so that no byte reads as EOF
+    }
+
+    /**
+     * Updates the line count after a byte that ends a token or is skipped.
+     *
+     * @param b The byte.
+     */
+    private void consumed(int b) {
+        if (b == '\n') {
+            line++;
+            lineStart = offset();
+        }
+    }
+
+    /**
+     * Maps the window starting at the given file offset.
+     *
+     * @param start The file offset of the window.
+     * @throws IOException If the window cannot be mapped.
+     */
+    private void map(long start) throws IOException {
+        long size = Math.min(chunkSize, fileSize - start);
+        buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, size);
+        chunkStart = start;
+        position = 0;
+        limit = (int) size;
+    }
+
+    /**
+     * Gets the file offset of the next byte to read.
+     *
+     * @return The offset.
+     */
+    private long offset() {
+        return chunkStart + position;
+    }
+
+    /**
+     * Creates an error located at the given file offset of the current line.
+     *
+     * @param offset The file offset of the error.
+     * @param message The description of the error.
+     * @return The exception.
+     */
+    private InstanceFormatException error(long offset, String message) {
+        return new InstanceFormatException(name, line, offset - lineStart + 1, message);
+    }
+
+    /**
+     * Checks whether a byte separates tokens.
+     *
+     * @param b The byte.
+     * @return True for spaces, tabs, carriage returns and line feeds.
+     */
+    private static boolean isWhitespace(int b) {
+        return b == ' ' || b == '\n' || b == '\r' || b == '\t' || b == '\f';
+    }
+}
@@ -0,0 +1,60 @@
+package src.util;
+
+import src.service.Observation;
+
+import java.io.Closeable;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+/**
+ * Destination of the observations of a run. Closing the sink writes out everything it still holds.
+ */
+public interface ObservationSink extends Consumer<Observation>, Closeable {
+
+    /**
+     * Output formats of the observations.
+     */
+    enum Format {
+        /** The human-readable report printed by default. */
+        HUMAN,
+        /** One CSV row per reported distribution. */
+        CSV,
+        /** One JSON object per observation and line. */
+        JSONL
+    }
+
+    /**
+     * Opens a buffered sink writing in the given format to a file or to the standard output.
+     *
+     * @param format The output format.
+     * @param file The file to write, or null for the standard output.
+     * @param queueCapacity The number of observations that may wait for a background writer thread,
+     *                      or 0 to write on the calling thread.
+     * @return The sink.
+     * @throws IOException If the file cannot be created.
+     */
+    static ObservationSink open(Format format, Path file, int queueCapacity) throws IOException {
+        OutputStream stream = file == null ? new FileOutputStream(FileDescriptor.out) : Files.newOutputStream(file);
+        Writer out = new OutputStreamWriter(stream, StandardCharsets.UTF_8);
+        ObservationSink sink;
+        switch (format) {
+            case CSV:
+                sink = new CsvObservationSink(out, file != null);
+                break;
+            case JSONL:
+                sink = new JsonLinesObservationSink(out, file != null);
+                break;
+            default:
+                sink = new HumanObservationSink(out, file != null);
+        }
+        return queueCapacity > 0 ? new AsyncObservationSink(sink, queueCapacity) : sink;
+    }
+}
@@ -1,68 +1,155 @@
 package src.util;
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.util.Scanner;
+import src.model.CostMatrix;
+import src.service.EventFactory;
+import src.service.ExactSolver;
+import src.service.Topology;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.random.RandomGenerator;
 
 /**
  * Class to parse the input arguments and read the input file.
  */
 public class Parser {
-    private static Parser instance;
     private int n, m, v, vmax, tau;
     private double mu, rho, delta;
-    private int[][] C;
+    private CostMatrix C;
+    private EventFactory.Sampler sampler = EventFactory.Sampler.COMPETING;
+    private long seed;
+    private int runs = 1;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int islands = 1;
+    private Topology topology = Topology.RING;
+    private int migrants = 2;
+    private double migrationInterval = 0;
+    private boolean cache = false;
+    private ObservationSink.Format outputFormat = ObservationSink.Format.HUMAN;
+    private Path outputFile;
+    private int outputQueue = 0;
+    private double metricsInterval = 0;
+    private Path checkpointFile;
+    private double checkpointInterval = 60;
+    private Path resumeFile;
+    private int fitnessCache = 0;
+    private int localSearchBudget = 0;
+    private double localSearchRate = 1;
+    private double warmStart = 0;
+    private boolean lowerBound = true;
+    private ExactSolver.Mode solver = ExactSolver.Mode.AUTO;
 
-    private Parser(String[] args) {
-        //Private constructor to prevent instantiation
-        if (args.length == 2 && args[0].equals("-f")) {
+    /**
+     * Constructs a Parser and reads the input described by the command-line arguments.
+     *
+     * @param args The command-line arguments.
+     * @throws IllegalArgumentException If the arguments are invalid, or the input file cannot be read or is malformed.
+     */
+    public Parser(String[] args) {
+        if (args.length >= 2 && args[0].equals("-f")) {
+            readOptions(args, 2);
             readFromFile(args[1]);
-        } else if (args.length == 9 && args[0].equals("-r")) {
+        } else if (args.length >= 9 && args[0].equals("-r")) {
+            readOptions(args, 9);
             readFromCommandLine(args);
         } else {
-            System.err.println("Invalid arguments");
-            return;
+            throw new IllegalArgumentException("Invalid arguments");
         }
     }
 
     /**
-     * Returns the singleton instance of the Parser class.
-     *
-     * @param args The command-line arguments.
-     * @return The singleton instance of the Parser class.
+     * Reads input parameters from a text or binary instance file. With the cache enabled, a text
+     * file is loaded from its binary sidecar when that is up to date, and the sidecar is written
+     * otherwise.
+     * 
+     * @param filePath The path to the input file.
+     * @throws IllegalArgumentException If the file cannot be read or is malformed.
      */
-    public static Parser getInstance(String[] args) {
-        if (instance == null) {
-            instance = new Parser(args);
+    private void readFromFile(String filePath) {
+        Path path = Path.of(filePath);
+        try {
+            if (BinaryInstance.isBinary(path)) {
+                load(BinaryInstance.read(path));
+                return;
+            }
+            BinaryInstance cached = cache ? BinaryInstance.readCached(path) : null;
+            if (cached != null) {
+                load(cached);
+                return;
+            }
+            readText(path);
+            if (cache) {
+                try {
+                    toBinaryInstance(path).write(BinaryInstance.sidecarOf(path));
+                } catch (IOException e) {
+                    System.err.println("Cannot write instance cache: " + e.getMessage());
+                }
+            }
+        } catch (NoSuchFileException e) {
+            throw new IllegalArgumentException("File not found: " + filePath, e);
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
         }
-        return instance;
     }
 
     /**
-     * Reads input parameters from a file.
-     * 
-     * @param filePath The path to the input file.
+     * Reads input parameters from a text file, tokenizing the memory-mapped bytes directly.
+     *
+     * @param path The path to the input file.
+     * @throws IOException If the file cannot be read or is malformed.
      */
-    private void readFromFile(String filePath) {
-        try (Scanner scanner = new Scanner(new File(filePath))) {
-            n = scanner.nextInt();
-            m = scanner.nextInt();
-            tau = scanner.nextInt();
-            v = scanner.nextInt();
-            vmax = scanner.nextInt();
-            mu = scanner.nextDouble();
-            rho = scanner.nextDouble();
-            delta = scanner.nextDouble();
-            C = new int[n][m];
+    private void readText(Path path) throws IOException {
+        try (MappedInputReader reader = new MappedInputReader(path)) {
+            n = reader.nextInt();
+            m = reader.nextInt();
+            tau = reader.nextInt();
+            v = reader.nextInt();
+            vmax = reader.nextInt();
+            mu = reader.nextDouble();
+            rho = reader.nextDouble();
+            delta = reader.nextDouble();
+            if (n <= 0 || m <= 0) {
+                throw new IllegalArgumentException(path + ": invalid dimensions " + n + " x " + m);
+            }
+            CostMatrix.Builder builder = new CostMatrix.Builder(n, m, CostMatrix.Layout.BY_SYSTEM);
             for (int i = 0; i < n; i++) {
                 for (int j = 0; j < m; j++) {
-                    C[i][j] = scanner.nextInt();
+                    builder.set(i, j, reader.nextInt());
                 }
             }
-        } catch (FileNotFoundException e) {
-            System.err.println("File not found: " + filePath);
+            C = builder.build();
         }
     }
 
+    /**
+     * Takes the input parameters from a binary instance.
+     *
+     * @param instance The binary instance.
+     */
+    private void load(BinaryInstance instance) {
+        n = instance.getN();
+        m = instance.getM();
+        tau = instance.getTau();
+        v = instance.getNu();
+        vmax = instance.getNuMax();
+        mu = instance.getMu();
+        rho = instance.getRho();
+        delta = instance.getDelta();
+        C = instance.getCosts();
+    }
+
+    /**
+     * Packs the input parameters as a binary instance converted from the given file.
+     *
+     * @param source The text file the parameters were read from.
+     * @return The binary instance, stamped with the size and modification time of the file.
+     * @throws IOException If the file attributes cannot be read.
+     */
+    BinaryInstance toBinaryInstance(Path source) throws IOException {
+        return new BinaryInstance(n, m, tau, v, vmax, mu, rho, delta, C,
+                                  Files.size(source), Files.getLastModifiedTime(source).toMillis());
+    }
+
     /**
      * Reads input parameters from the command line arguments.
      * 
@@ -77,24 +164,253 @@ public class Parser {
         mu = Double.parseDouble(args[6]);
         rho = Double.parseDouble(args[7]);
         delta = Double.parseDouble(args[8]);
-        C = generateRandomMatrix(n, m);
+        C = generateRandomMatrix(n, m, new RandomStreams(seed).stream(RandomStreams.INSTANCE_STREAM));
     }
     
+    /**
+     * Reads the optional "--name value" arguments that follow the input parameters.
+     *
+     * @param args The command line arguments.
+     * @param start The index of the first optional argument.
+     * @throws IllegalArgumentException If an option is unknown, or its value is missing or malformed.
+     */
+    private void readOptions(String[] args, int start) {
+        boolean seedGiven = false;
+        for (int i = start; i < args.length; i += 2) {
+            String option = args[i];
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + option);
+            }
+            String value = args[i + 1];
+            switch (option) {
+                case "--sampler":
+                    sampler = parseEnum(EventFactory.Sampler.class, option, value);
+                    break;
+                case "--seed":
+                    seed = parseLong(option, value);
+                    seedGiven = true;
+                    break;
+                case "--runs":
+                    runs = parseInt(option, value, 1);
+                    break;
+                case "--threads":
+                    threads = parseInt(option, value, 1);
+                    break;
+                case "--islands":
+                    islands = parseInt(option, value);
+                    break;
+                case "--topology":
+                    topology = parseEnum(Topology.class, option, value);
+                    break;
+                case "--migrants":
+                    migrants = parseInt(option, value);
+                    break;
+                case "--migration-interval":
+                    migrationInterval = parseDouble(option, value);
+                    break;
+                case "--cache":
+                    cache = parseSwitch(option, value);
+                    break;
+                case "--output":
+                    outputFormat = parseEnum(ObservationSink.Format.class, option, value);
+                    break;
+                case "--output-file":
+                    outputFile = Path.of(value);
+                    break;
+                case "--output-queue":
+                    outputQueue = parseInt(option, value);
+                    break;
+                case "--metrics":
+                    metricsInterval = parseDouble(option, value);
+                    break;
+                case "--checkpoint":
+                    checkpointFile = Path.of(value);
+                    break;
+                case "--checkpoint-interval":
+                    checkpointInterval = parseDouble(option, value);
+                    break;
+                case "--resume":
+                    resumeFile = Path.of(value);
+                    break;
+                case "--fitness-cache":
+                    fitnessCache = parseInt(option, value);
+                    break;
+                case "--local-search":
+                    localSearchBudget = parseInt(option, value, 0);
+                    break;
+                case "--local-search-rate":
+                    localSearchRate = parseDouble(option, value, 0, 1);
+                    break;
+                case "--warm-start":
+                    warmStart = parseDouble(option, value, 0, 1);
+                    break;
+                case "--lower-bound":
+                    lowerBound = parseSwitch(option, value);
+                    break;
+                case "--solver":
+                    solver = parseEnum(ExactSolver.Mode.class, option, value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + option);
+            }
+        }
+        if (!seedGiven) {
+            // Report the drawn seed so that the run can be repeated with --seed
+            seed = RandomStreams.randomSeed();
+            if (resumeFile == null) {
+                System.err.println("Random seed: " + seed);
+            }
+        }
+    }
+
+    /**
+     * Parses the value of an integer option.
+     *
+     * @param option The name of the option.
+     * @param value The value given on the command line.
+     * @return The value.
+     * @throws IllegalArgumentException If the value is not an integer.
+     */
+    private static int parseInt(String option, String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw invalid(option, value);
+        }
+    }
+
+    /**
+     * Parses the value of an integer option that has a smallest allowed value.
+     *
+     * @param option The name of the option.
+     * @param value The value given on the command line.
+     * @param min The smallest allowed value.
+     * @return The value.
+     * @throws IllegalArgumentException If the value is not an integer, or is below min.
+     */
+    private static int parseInt(String option, String value, int min) {
+        int parsed = parseInt(option, value);
+        if (parsed < min) {
+            throw new IllegalArgumentException("Invalid value for " + option + ": " + value + " (must be at least " + min + ")");
+        }
+        return parsed;
+    }
+
+    /**
+     * Parses the value of a long integer option.
+     *
+     * @param option The name of the option.
+     * @param value The value given on the command line.
+     * @return The value.
+     * @throws IllegalArgumentException If the value is not an integer.
+     */
+    private static long parseLong(String option, String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw invalid(option, value);
+        }
+    }
+
+    /**
+     * Parses the value of a real option.
+     *
+     * @param option The name of the option.
+     * @param value The value given on the command line.
+     * @return The value.
+     * @throws IllegalArgumentException If the value is not a finite number.
+     */
+    private static double parseDouble(String option, String value) {
+        try {
+            double parsed = Double.parseDouble(value);
+            if (Double.isFinite(parsed)) {
+                return parsed;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw invalid(option, value);
+    }
+
+    /**
+     * Parses the value of a real option that must lie in a range.
+     *
+     * @param option The name of the option.
+     * @param value The value given on the command line.
+     * @param min The smallest allowed value.
+     * @param max The largest allowed value.
+     * @return The value.
+     * @throws IllegalArgumentException If the value is not a number, or is outside [min, max].
+     */
+    private static double parseDouble(String option, String value, double min, double max) {
+        double parsed = parseDouble(option, value);
+        if (parsed < min || parsed > max) {
+            throw new IllegalArgumentException("Invalid value for " + option + ": " + value
+                                               + " (must be between " + min + " and " + max + ")");
+        }
+        return parsed;
+    }
+
+    /**
+     * Parses the value of an "on" or "off" option.
+     *
+     * @param option The name of the option.
+     * @param value The value given on the command line.
+     * @return True for "on".
+     * @throws IllegalArgumentException If the value is neither "on" nor "off".
+     */
+    private static boolean parseSwitch(String option, String value) {
+        if (!value.equals("on") && !value.equals("off")) {
+            throw invalid(option, value);
+        }
+        return value.equals("on");
+    }
+
+    /**
+     * Parses the value of an option naming a constant of an enum, in any case.
+     *
+     * @param type The enum.
+     * @param option The name of the option.
+     * @param value The value given on the command line.
+     * @param <E> The type of the enum.
+     * @return The constant.
+     * @throws IllegalArgumentException If the value names no constant of the enum.
+     */
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String option, String value) {
+        try {
+            return Enum.valueOf(type, value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw invalid(option, value);
+        }
+    }
+
+    /**
+     * Builds the exception reporting an invalid option value.
+     *
+     * @param option The name of the option.
+     * @param value The value given on the command line.
+     * @return The exception.
+     */
+    private static IllegalArgumentException invalid(String option, String value) {
+        return new IllegalArgumentException("Invalid value for " + option + ": " + value);
+    }
+
     /**
      * Generates a random matrix of size n by m.
      * 
      * @param n The number of rows in the matrix.
      * @param m The number of columns in the matrix.
+     * @param random The random generator of the instance.
      * @return A random matrix.
      */
-    private int[][] generateRandomMatrix(int n, int m) {
-        int[][] matrix = new int[n][m];
+    private CostMatrix generateRandomMatrix(int n, int m, RandomGenerator random) {
+        CostMatrix.Builder matrix = new CostMatrix.Builder(n, m, CostMatrix.Layout.BY_SYSTEM);
         for (int i = 0; i < n; i++) {
             for (int j = 0; j < m; j++) {
-                matrix[i][j] = (int) (Math.random() * 10 + 1); // Random values between 1 and 10
+                matrix.set(i, j, (int) (random.nextDouble() * 10 + 1)); // Random values between 1 and 10
             }
         }
-        return matrix;
+        return matrix.build();
     }
 
     /**
@@ -174,7 +490,196 @@ public class Parser {
      *
      * @return The time matrix.
      */
-    public int[][] getC() {
+    public CostMatrix getC() {
         return C;
     }
+
+    /**
+     * Gets the method used to draw event times.
+     *
+     * @return The event sampler.
+     */
+    public EventFactory.Sampler getSampler() {
+        return sampler;
+    }
+
+    /**
+     * Gets the seed of the run, given with --seed or drawn at random.
+     *
+     * @return The seed.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Gets the number of independent simulations to run.
+     *
+     * @return The number of runs.
+     */
+    public int getRuns() {
+        return runs;
+    }
+
+    /**
+     * Gets the number of threads used to run the simulations.
+     *
+     * @return The number of threads.
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Gets the number of islands of the island model, 1 to run without islands.
+     *
+     * @return The number of islands.
+     */
+    public int getIslands() {
+        return islands;
+    }
+
+    /**
+     * Gets the migration topology of the island model.
+     *
+     * @return The topology.
+     */
+    public Topology getTopology() {
+        return topology;
+    }
+
+    /**
+     * Gets the number of individuals an island sends to each neighbour per migration.
+     *
+     * @return The number of migrants.
+     */
+    public int getMigrants() {
+        return migrants;
+    }
+
+    /**
+     * Gets the simulation time between two migrations, tau / 50 unless given.
+     *
+     * @return The migration interval.
+     */
+    public double getMigrationInterval() {
+        return migrationInterval > 0 ? migrationInterval : tau / 50.0;
+    }
+
+    /**
+     * Gets the format of the observations.
+     *
+     * @return The output format.
+     */
+    public ObservationSink.Format getOutputFormat() {
+        return outputFormat;
+    }
+
+    /**
+     * Gets the file the observations are written to.
+     *
+     * @return The output file, or null for the standard output.
+     */
+    public Path getOutputFile() {
+        return outputFile;
+    }
+
+    /**
+     * Gets the number of observations that may wait for the background writer.
+     *
+     * @return The queue capacity, or 0 to write on the simulation thread.
+     */
+    public int getOutputQueue() {
+        return outputQueue;
+    }
+
+    /**
+     * Gets the wall-clock time between two metrics reports.
+     *
+     * @return The interval in seconds, or 0 to print no metrics.
+     */
+    public double getMetricsInterval() {
+        return metricsInterval;
+    }
+
+    /**
+     * Gets the file to which the state of the run is periodically saved.
+     *
+     * @return The checkpoint file, or null to write no checkpoints.
+     */
+    public Path getCheckpointFile() {
+        return checkpointFile;
+    }
+
+    /**
+     * Gets the wall-clock time between two checkpoints.
+     *
+     * @return The interval in seconds.
+     */
+    public double getCheckpointInterval() {
+        return checkpointInterval;
+    }
+
+    /**
+     * Gets the checkpoint from which the run is resumed.
+     *
+     * @return The checkpoint file, or null to start a new run.
+     */
+    public Path getResumeFile() {
+        return resumeFile;
+    }
+
+    /**
+     * Gets the number of allocations whose policing time each run remembers.
+     *
+     * @return The capacity of the fitness cache, or 0 to disable it.
+     */
+    public int getFitnessCache() {
+        return fitnessCache;
+    }
+
+    /**
+     * Gets the maximum number of move evaluations of the local search per offspring.
+     *
+     * @return The budget, or 0 to disable the local search.
+     */
+    public int getLocalSearchBudget() {
+        return localSearchBudget;
+    }
+
+    /**
+     * Gets the probability that an offspring is improved by the local search.
+     *
+     * @return The rate, between 0 and 1.
+     */
+    public double getLocalSearchRate() {
+        return localSearchRate;
+    }
+
+    /**
+     * Gets the share of the initial population built by constructive heuristics.
+     *
+     * @return The share, between 0 and 1.
+     */
+    public double getWarmStart() {
+        return warmStart;
+    }
+
+    /**
+     * Checks whether runs compute a lower bound, to stop when the best individual is proven optimal.
+     *
+     * @return True if the lower bound is computed.
+     */
+    public boolean isLowerBound() {
+        return lowerBound;
+    }
+
+    /**
+     * Gets how the instance is solved: exactly, by evolution, or exactly if it is small.
+     *
+     * @return The solver mode.
+     */
+    public ExactSolver.Mode getSolver() {
+        return solver;
+    }
 }
@@ -0,0 +1,78 @@
+package src.util;
+
+import java.util.SplittableRandom;
+
+/**
+ * Source of the random number streams of a run.
+ * <p>
+ * Every consumer gets its own generator, derived only from the run seed and a stream id,
+ * so a run is reproduced exactly by its seed and no generator is shared between threads.
+ */
+public class RandomStreams {
+    /** Stream used to generate a random instance. */
+    public static final long INSTANCE_STREAM = 0;
+
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private final long seed;
+
+    /**
+     * Constructs the streams of a run with the given seed.
+     *
+     * @param seed The seed of the run.
+     */
+    public RandomStreams(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Draws a fresh seed for a run whose seed was not given.
+     *
+     * @return A seed.
+     */
+    public static long randomSeed() {
+        return new SplittableRandom().nextLong();
+    }
+
+    /**
+     * Gets the seed of the run.
+     *
+     * @return The seed.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Creates the generator of the given stream. The same id always yields the same sequence.
+     * The generator is a SplitMix64, so its state can be saved in a checkpoint.
+     *
+     * @param id The id of the stream.
+     * @return A new generator for the stream.
+     */
+    public SplitMix64 stream(long id) {
+        return new SplitMix64(mix(seed + (id + 1) * GOLDEN_GAMMA));
+    }
+
+    /**
+     * Creates the generator of a simulation run.
+     *
+     * @param run The index of the run, starting at 0.
+     * @return A new generator for the run.
+     */
+    public SplitMix64 forRun(int run) {
+        return stream(INSTANCE_STREAM + 1 + run);
+    }
+
+    /**
+     * Scrambles a 64-bit value (the SplitMix64 finalizer) so that nearby ids give unrelated seeds.
+     *
+     * @param z The value to scramble.
+     * @return The scrambled value.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,58 @@
+package src.util;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * SplitMix64 generator whose state can be read and restored, so that a run can be checkpointed.
+ * <p>
+ * It produces exactly the sequence of {@code new java.util.SplittableRandom(seed)}, which keeps
+ * seeded runs identical to those made with SplittableRandom, but unlike SplittableRandom it
+ * exposes its 64-bit state.
+ */
+public class SplitMix64 implements RandomGenerator {
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private long state;
+
+    /**
+     * Constructs a SplitMix64 with the given seed.
+     *
+     * @param seed The initial state.
+     */
+    public SplitMix64(long seed) {
+        this.state = seed;
+    }
+
+    @Override
+    public long nextLong() {
+        long z = state += GOLDEN_GAMMA;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    @Override
+    public int nextInt() {
+        long z = state += GOLDEN_GAMMA;
+        z = (z ^ (z >>> 33)) * 0x62a9d9ed799705f5L;
+        return (int) (((z ^ (z >>> 28)) * 0xcb24d0a5c88c35b3L) >>> 32);
+    }
+
+    /**
+     * Gets the current state, from which the generator continues after setState.
+     *
+     * @return The state.
+     */
+    public long getState() {
+        return state;
+    }
+
+    /**
+     * Restores a state returned by getState.
+     *
+     * @param state The state.
+     */
+    public void setState(long state) {
+        this.state = state;
+    }
+}
@@ -0,0 +1,142 @@
+package src.util;
+
+import src.model.Individual;
+import src.service.Observation;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+/**
+ * Base of the sinks that format observations as text through a large buffer. Each observation
+ * is flushed once it is complete, so a report is never left half written.
+ */
+public abstract class WriterObservationSink implements ObservationSink {
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    protected final Writer out;
+    private final boolean closeOutput;
+    private final char[] digits = new char[11];
+    private int[] order = new int[0];
+    private int[] starts = new int[0];
+
+    /**
+     * Constructs a WriterObservationSink.
+     *
+     * @param out The destination of the text.
+     * @param closeOutput True to close the destination with the sink, false to only flush it.
+     */
+    protected WriterObservationSink(Writer out, boolean closeOutput) {
+        this.out = new BufferedWriter(out, BUFFER_SIZE);
+        this.closeOutput = closeOutput;
+    }
+
+    @Override
+    public void accept(Observation observation) {
+        try {
+            write(observation);
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes one observation.
+     *
+     * @param observation The observation.
+     * @throws IOException If the output fails.
+     */
+    protected abstract void write(Observation observation) throws IOException;
+
+    @Override
+    public void close() throws IOException {
+        if (closeOutput) {
+            out.close();
+        } else {
+            out.flush();
+        }
+    }
+
+    /**
+     * Writes an int without creating a string.
+     *
+     * @param value The value.
+     * @throws IOException If the output fails.
+     */
+    protected void writeInt(int value) throws IOException {
+        if (value < 0) {
+            out.write(value == Integer.MIN_VALUE ? "-2147483648" : "-");
+            if (value == Integer.MIN_VALUE) {
+                return;
+            }
+            value = -value;
+        }
+        int position = digits.length;
+        do {
+            digits[--position] = (char) ('0' + value % 10);
+            value /= 10;
+        } while (value > 0);
+        out.write(digits, position, digits.length - position);
+    }
+
+    /**
+     * Writes the systems of each patrol in braces, as in {{0,2}, {}, {1}}, in O(n + m).
+     *
+     * @param individual The individual whose allocation to write.
+     * @throws IOException If the output fails.
+     */
+    protected void writeAllocation(Individual individual) throws IOException {
+        int[] genome = individual.getGenome();
+        int n = individual.getPatrolCount();
+        if (starts.length < n + 1) {
+            starts = new int[n + 1];
+        }
+        if (order.length < genome.length) {
+            order = new int[genome.length];
+        }
+        // Bucket the systems by patrol, keeping increasing ids within each patrol
+        starts[0] = 0;
+        for (int p = 0; p < n; p++) {
+            starts[p + 1] = starts[p] + individual.getSystemCount(p);
+        }
+        for (int s = 0; s < genome.length; s++) {
+            order[starts[genome[s]]++] = s;
+        }
+        out.write('{');
+        int start = 0;
+        for (int p = 0; p < n; p++) {
+            if (p > 0) {
+                out.write(", ");
+            }
+            out.write('{');
+            for (int i = start; i < starts[p]; i++) {
+                if (i > start) {
+                    out.write(',');
+                }
+                writeInt(order[i]);
+            }
+            out.write('}');
+            start = starts[p];
+        }
+        out.write('}');
+    }
+
+    /**
+     * Writes the patrol of each system, in system order, separated by the given character.
+     *
+     * @param individual The individual whose genome to write.
+     * @param separator The separator between two patrols.
+     * @throws IOException If the output fails.
+     */
+    protected void writeGenome(Individual individual, char separator) throws IOException {
+        int[] genome = individual.getGenome();
+        for (int s = 0; s < genome.length; s++) {
+            if (s > 0) {
+                out.write(separator);
+            }
+            writeInt(genome[s]);
+        }
+    }
+}